@@ -0,0 +1,29 @@
+package com.task.edtech.api.controller;
+
+import com.task.edtech.db.cache.CourseJsonCache;
+import com.task.edtech.db.dto.CourseDTO;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+
+/**
+ * Writes each course through {@link CourseJsonCache}: unchanged courses go out as the raw JSON
+ * kept there, the rest are serialized by {@code mapper}, which must not use this serializer
+ * itself. Everything around the courses is written by Jackson from its own class.
+ */
+class CachedCourseSerializer extends ValueSerializer<CourseDTO> {
+
+    private final CourseJsonCache courseJsonCache;
+    private final ObjectMapper mapper;
+
+    CachedCourseSerializer(CourseJsonCache courseJsonCache, ObjectMapper mapper) {
+        this.courseJsonCache = courseJsonCache;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void serialize(CourseDTO course, JsonGenerator gen, SerializationContext ctxt) {
+        gen.writeRawValue(courseJsonCache.toJson(course, mapper::writeValueAsString));
+    }
+}
@@ -1,70 +1,197 @@
 package com.task.edtech.api.controller;
 
+import com.task.edtech.db.cache.CourseJsonCache;
 import com.task.edtech.db.converter.CourseConverter;
+import com.task.edtech.db.dto.ChangeCursor;
+import com.task.edtech.db.dto.CourseBulkRequest;
+import com.task.edtech.db.dto.CourseBulkResponse;
+import com.task.edtech.db.dto.CourseChangeDTO;
 import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.dto.CourseImportResponse;
+import com.task.edtech.db.dto.CourseSearchResponse;
+import com.task.edtech.db.dto.CourseSearchResult;
+import com.task.edtech.db.dto.CourseSummaryDTO;
+import com.task.edtech.db.dto.NearbyCourseDTO;
+import com.task.edtech.db.dto.SearchCursor;
 import com.task.edtech.db.dto.SearchFilters;
+import com.task.edtech.db.dto.TextMatchCourseDTO;
 import com.task.edtech.db.entity.Course;
-import com.task.edtech.db.entity.User;
 import com.task.edtech.db.enums.CourseCategory;
 import com.task.edtech.db.enums.CourseMode;
-import com.task.edtech.db.enums.UserType;
 import com.task.edtech.db.exception.EntityNotFoundException;
 import com.task.edtech.db.service.AuthService;
+import com.task.edtech.db.service.CourseChangeService;
+import com.task.edtech.db.service.CourseImportService;
 import com.task.edtech.db.service.CourseService;
 import jakarta.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.databind.module.SimpleModule;
 
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/courses")
 public class CourseController {
 
+    /** A provider's own courses: kept by the browser only, revalidated with the ETag on every use. */
+    private static final CacheControl OWNER_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    @Value("${app.search.cache-max-age:30s}")
+    private Duration searchCacheMaxAge;
+
     @Autowired
     private AuthService authService;
 
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private CourseImportService courseImportService;
+
+    @Autowired
+    private CourseChangeService courseChangeService;
+
     @Autowired
     private CourseConverter courseConverter;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CourseJsonCache courseJsonCache;
+
+    /** The application's mapper, writing courses through {@link CourseJsonCache}. */
+    private ObjectMapper courseJsonMapper;
+
+    @PostConstruct
+    void init() {
+        courseJsonMapper = objectMapper.rebuild()
+                .addModule(new SimpleModule("course-json-cache")
+                        .addSerializer(CourseDTO.class, new CachedCourseSerializer(courseJsonCache, objectMapper)))
+                .build();
+    }
+
     @PostMapping
     public ResponseEntity<CourseDTO> createCourse(@Valid @RequestBody CourseDTO courseDTO) {
         Long userId = authService.getCurrentUserId();
         Course course = courseConverter.toEntity(courseDTO, userId);
-        User user = course.getUser();
-        if (!Objects.equals(user.getUserType(), UserType.PROVIDER)) {
-            throw new RuntimeException("Only provider could create courses");
-        }
+        // addOrUpdate resolves the owner and rejects non-providers
         Course dbCourse = courseService.addOrUpdate(course);
         CourseDTO responseDTO = courseConverter.toDto(dbCourse);
         return ResponseEntity.status(HttpStatus.CREATED).body(responseDTO);
     }
 
-    @GetMapping("/mine")
-    public ResponseEntity<List<CourseDTO>> getMyCourses() {
+    /**
+     * Bulk create-or-update of the caller's courses, matched by title. The body is either a JSON
+     * array or newline-delimited JSON (one course per line); both are read as a stream.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<CourseImportResponse> importCourses(InputStream body) {
         Long userId = authService.getCurrentUserId();
-        List<Course> courses = courseService.getAllByUserId(userId);
-        List<CourseDTO> courseDTOs = courses.stream()
-                .map(courseConverter::toDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(courseDTOs);
+        try (MappingIterator<CourseDTO> courses = objectMapper.readerFor(CourseDTO.class).readValues(body)) {
+            return ResponseEntity.ok(courseImportService.importCourses(userId, courses));
+        }
+    }
+
+    /**
+     * Streams the JSON array: each course is written as it is read from the database cursor, so
+     * the DTOs are never collected first, and copied from {@link CourseJsonCache} when unchanged.
+     * {@code view=summary} leaves out the description.
+     */
+    @GetMapping(value = "/mine", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getMyCourses(
+            @RequestParam(required = false) String view,
+            WebRequest webRequest) {
+        Long userId = authService.getCurrentUserId();
+        boolean summary = "summary".equals(view);
+
+        // read before the courses: a write in between leaves an older ETag, never a newer one
+        String eTag = eTag(courseService.getCoursesVersion(userId) + (summary ? "-summary" : ""));
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag, OWNER_CACHE_CONTROL);
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            if (summary) {
+                try (SequenceWriter courses = objectMapper.writerFor(CourseSummaryDTO.class)
+                        .writeValuesAsArray(StreamUtils.nonClosing(outputStream))) {
+                    courseService.forEachSummaryByUserId(userId, courses::write);
+                }
+            } else {
+                try (SequenceWriter courses = courseJsonMapper.writerFor(CourseDTO.class)
+                        .writeValuesAsArray(StreamUtils.nonClosing(outputStream))) {
+                    courseService.forEachByUserId(userId, courses::write);
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .cacheControl(OWNER_CACHE_CONTROL)
+                .body(body);
+    }
+
+    /**
+     * Course writes after {@code since}, oldest first, as newline-delimited JSON streamed from the
+     * outbox. Each change carries the cursor to resume from, so consumers catch up by polling
+     * with the cursor of the last change they processed instead of rescanning the courses.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getCourseChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        ChangeCursor after = since != null && !since.isBlank() ? ChangeCursor.decode(since) : null;
+
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter changes = objectMapper.writerFor(CourseChangeDTO.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(StreamUtils.nonClosing(outputStream))) {
+                courseChangeService.forEachChangeSince(after, limit, changes::write);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .cacheControl(CacheControl.noStore())
+                .body(body);
     }
 
     @GetMapping("/{courseId}")
-    public ResponseEntity<CourseDTO> getCourseById(@PathVariable @NotNull UUID courseId) {
+    public ResponseEntity<CourseDTO> getCourseById(@PathVariable @NotNull UUID courseId, WebRequest webRequest) {
         Long userId = authService.getCurrentUserId();
+
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String currentETag = courseService.findUpdatedAt(courseId, userId)
+                    .map(updatedAt -> eTag(updatedAt.toString()))
+                    .orElse(null);
+            if (currentETag != null && webRequest.checkNotModified(currentETag)) {
+                return notModified(currentETag, OWNER_CACHE_CONTROL);
+            }
+        }
+
         Course course = courseService.findByInternalId(courseId);
 
         if (!course.getUser().getId().equals(userId)) {
@@ -72,7 +199,11 @@ public class CourseController {
         }
         
         CourseDTO courseDTO = courseConverter.toDto(course);
-        return ResponseEntity.ok(courseDTO);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(OWNER_CACHE_CONTROL);
+        if (course.getUpdatedAt() != null) {
+            response.eTag(eTag(course.getUpdatedAt().toString()));
+        }
+        return response.body(courseDTO);
     }
 
     @PutMapping("/{courseId}")
@@ -81,14 +212,9 @@ public class CourseController {
             @Valid @RequestBody CourseDTO courseDTO) {
         Long userId = authService.getCurrentUserId();
 
-        Course existingCourse = courseService.findByInternalId(courseId);
-        if (!existingCourse.getUser().getId().equals(userId)) {
-            throw new EntityNotFoundException("Course not found or access denied");
-        }
-
+        // ownership is checked by the UPDATE itself; the published flag is left as stored
         Course course = courseConverter.toEntity(courseDTO, userId);
-        course.setIsPublished(existingCourse.getIsPublished());
-        Course updatedCourse = courseService.addOrUpdate(course);
+        Course updatedCourse = courseService.updateCourse(courseId, course);
         CourseDTO responseDTO = courseConverter.toDto(updatedCourse);
         return ResponseEntity.ok(responseDTO);
     }
@@ -96,26 +222,14 @@ public class CourseController {
     @DeleteMapping("/{courseId}")
     public ResponseEntity<Void> deleteCourse(@PathVariable @NotNull UUID courseId) {
         Long userId = authService.getCurrentUserId();
-
-        Course course = courseService.findByInternalId(courseId);
-        if (!course.getUser().getId().equals(userId)) {
-            throw new EntityNotFoundException("Course not found or access denied");
-        }
-        
-        courseService.delete(course);
+        courseService.delete(courseId, userId);
         return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/{courseId}/publish")
     public ResponseEntity<CourseDTO> publishCourse(@PathVariable @NotNull UUID courseId) {
         Long userId = authService.getCurrentUserId();
-
-        Course course = courseService.findByInternalId(courseId);
-        if (!course.getUser().getId().equals(userId)) {
-            throw new EntityNotFoundException("Course not found or access denied");
-        }
-        
-        Course publishedCourse = courseService.publishCourse(course.getInternalId());
+        Course publishedCourse = courseService.publishCourse(courseId, userId);
         CourseDTO courseDTO = courseConverter.toDto(publishedCourse);
         return ResponseEntity.ok(courseDTO);
     }
@@ -123,26 +237,63 @@ public class CourseController {
     @PostMapping("/{courseId}/unpublish")
     public ResponseEntity<CourseDTO> unpublishCourse(@PathVariable @NotNull UUID courseId) {
         Long userId = authService.getCurrentUserId();
-
-        Course course = courseService.findByInternalId(courseId);
-        if (!course.getUser().getId().equals(userId)) {
-            throw new EntityNotFoundException("Course not found or access denied");
-        }
-        
-        Course unpublishedCourse = courseService.unpublishCourse(course.getInternalId());
+        Course unpublishedCourse = courseService.unpublishCourse(courseId, userId);
         CourseDTO courseDTO = courseConverter.toDto(unpublishedCourse);
         return ResponseEntity.ok(courseDTO);
     }
 
-    @GetMapping("/search")
-    public ResponseEntity<List<CourseDTO>> searchCourses(
+    /**
+     * Publishes the caller's courses among {@code courseIds} with one UPDATE; ids of other
+     * users' courses are reported as not found, like the single-course endpoints do.
+     */
+    @PostMapping("/bulk/publish")
+    public ResponseEntity<CourseBulkResponse> publishCourses(@Valid @RequestBody CourseBulkRequest request) {
+        Long userId = authService.getCurrentUserId();
+        return ResponseEntity.ok(bulkResponse(request, courseService.publishCourses(userId, request.getCourseIds())));
+    }
+
+    @PostMapping("/bulk/unpublish")
+    public ResponseEntity<CourseBulkResponse> unpublishCourses(@Valid @RequestBody CourseBulkRequest request) {
+        Long userId = authService.getCurrentUserId();
+        return ResponseEntity.ok(bulkResponse(request, courseService.unpublishCourses(userId, request.getCourseIds())));
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<CourseBulkResponse> deleteCourses(@Valid @RequestBody CourseBulkRequest request) {
+        Long userId = authService.getCurrentUserId();
+        return ResponseEntity.ok(bulkResponse(request, courseService.deleteCourses(userId, request.getCourseIds())));
+    }
+
+    /**
+     * Writes the {@link CourseSearchResponse} with the courses copied from
+     * {@link CourseJsonCache} when unchanged, instead of being serialized again.
+     */
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> searchCourses(
             @RequestParam @Nullable String pinCode,
             @RequestParam(required = false) String filterPinCode,
             @RequestParam(required = false) CourseCategory category,
             @RequestParam(required = false) CourseMode mode,
             @RequestParam(required = false) Boolean isFree,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startFrom,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startTo) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startTo,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean facets,
+            WebRequest webRequest) {
+
+        // Results depend on the query string (the cache key), the catalog, and today's date (the
+        // default startFrom); they do not depend on the caller, so shared caches may keep them
+        CacheControl cacheControl = CacheControl.maxAge(searchCacheMaxAge).cachePublic();
+        String ifNoneMatch = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            String current = searchETag(courseService.getCatalogVersion());
+            if (listsETag(ifNoneMatch, current)) {
+                return notModified(current, cacheControl);
+            }
+        }
 
         SearchFilters filters = new SearchFilters();
         filters.setPinCode(filterPinCode);
@@ -151,14 +302,69 @@ public class CourseController {
         filters.setIsFree(isFree);
         filters.setStartFrom(startFrom);
         filters.setStartTo(startTo);
+        filters.setRadiusKm(radiusKm);
+        filters.setText(q);
+
+        SearchCursor after = cursor != null && !cursor.isBlank() ? SearchCursor.decode(cursor) : null;
+
+        // the ETag is the version the results were read at, which a replica other than the one
+        // that answered the version check above may not have reached yet
+        CourseSearchResult result = courseService.searchCatalog(pinCode, filters, after, limit, facets);
+        Slice<CourseDTO> courses = result.getCourses();
+        List<CourseDTO> courseDTOs = courses.getContent();
+
+        String nextCursor = null;
+        if (courses.hasNext() && !courseDTOs.isEmpty()) {
+            CourseDTO last = courseDTOs.get(courseDTOs.size() - 1);
+            Double distanceKm = last instanceof NearbyCourseDTO nearby ? nearby.getDistanceKm() : null;
+            Double relevance = last instanceof TextMatchCourseDTO match ? match.getRelevance() : null;
+            nextCursor = new SearchCursor(last.getStartDate(), last.getId(), distanceKm, relevance).encode();
+        }
 
-        List<Course> courses = courseService.searchCourses(pinCode, filters);
+        return ResponseEntity.ok()
+                .eTag(searchETag(result.getCatalogVersion()))
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(courseJsonMapper.writeValueAsBytes(
+                        new CourseSearchResponse(courseDTOs, nextCursor, result.getFacets())));
+    }
+
+    private static CourseBulkResponse bulkResponse(CourseBulkRequest request, List<UUID> applied) {
+        Set<UUID> appliedIds = new HashSet<>(applied);
+        List<UUID> notFound = request.getCourseIds().stream()
+                .distinct()
+                .filter(courseId -> !appliedIds.contains(courseId))
+                .toList();
+        return new CourseBulkResponse(applied, notFound);
+    }
+
+    private static String eTag(String version) {
+        return "\"" + version + "\"";
+    }
 
-        List<CourseDTO> courseDTOs = courses.stream()
-                .map(courseConverter::toDto)
-                .collect(Collectors.toList());
+    private static String searchETag(long catalogVersion) {
+        return eTag(catalogVersion + "-" + LocalDate.now());
+    }
+
+    /**
+     * Whether an If-None-Match value lists the ETag, weakly or strongly, or is {@code *}. The
+     * search checks it by hand: its ETag is only known once the results are read.
+     */
+    private static boolean listsETag(String ifNoneMatch, String eTag) {
+        for (String listed : ifNoneMatch.split(",")) {
+            String candidate = listed.strip();
+            if (candidate.equals("*") || candidate.equals(eTag) || candidate.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        return ResponseEntity.ok(courseDTOs);
+    private static <T> ResponseEntity<T> notModified(String eTag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .build();
     }
 }
 
@@ -3,11 +3,13 @@ package com.task.edtech.services;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = {
     "com.task.edtech"  // Scans all packages: db.entity, db.repository, db.service, services.controller
 })
 @EnableJpaRepositories(basePackages = "com.task.edtech.db.repository")
+@EnableScheduling
 public class Application {
 
 	public static void main(String[] args) {
@@ -1,23 +1,65 @@
 package com.task.edtech.services.config;
 
+import com.task.edtech.db.datasource.ReadReplicaRoutingDataSource;
+import com.task.edtech.db.datasource.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+@Slf4j
 @Configuration
 public class JpaConfig {
+
+    private static final String SCHEMA_SCRIPTS = "classpath*:db/schema/*.sql";
+
+    @Value("${app.datasource.replica.urls:}")
+    private String[] replicaUrls;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.pool-size:20}")
+    private int replicaPoolSize;
+
+    @Value("${spring.datasource.hikari.connection-timeout:5000}")
+    private long connectionTimeout;
+
+    private final List<HikariDataSource> replicaPools = new ArrayList<>();
+
     @Bean
     @Primary
-    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(
+            DataSource dataSource,
+            ReadYourWritesTracker readYourWrites,
+            MeterRegistry meterRegistry) {
         
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
-        em.setDataSource(dataSource);
+        em.setDataSource(routeReadsToReplicas(dataSource, readYourWrites, meterRegistry));
         em.setPackagesToScan("com.task.edtech.db.entity");  // Explicitly set entity package
         em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
         
@@ -26,9 +68,65 @@ public class JpaConfig {
         properties.put("hibernate.hbm2ddl.auto", "update");
         properties.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
         properties.put("hibernate.show_sql", "false");
+        // Group inserts/updates into JDBC batches (needs sequence ids, see BaseEntity)
+        properties.put("hibernate.jdbc.batch_size", "50");
+        properties.put("hibernate.order_inserts", "true");
+        properties.put("hibernate.order_updates", "true");
         em.setJpaPropertyMap(properties);
         
         return em;
     }
-}
 
+    /**
+     * With {@code app.datasource.replica.urls} set, read-only transactions run on one pool per
+     * replica and everything else on {@code dataSource}; without it, {@code dataSource} is used as is.
+     * Schema scripts always run on the primary.
+     */
+    private DataSource routeReadsToReplicas(DataSource dataSource, ReadYourWritesTracker readYourWrites,
+                                            MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + replicaPools.size());
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setMinimumIdle(replicaPoolSize);
+            replica.setConnectionTimeout(connectionTimeout);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicaPools.add(replica);
+            replicas.add(replica);
+        }
+        if (replicas.isEmpty()) {
+            return dataSource;
+        }
+        log.info("Routing read-only transactions to {} replica(s)", replicas.size());
+        return ReadReplicaRoutingDataSource.routing(dataSource, replicas, readYourWrites, meterRegistry);
+    }
+
+    @PreDestroy
+    void closeReplicaPools() {
+        replicaPools.forEach(HikariDataSource::close);
+    }
+
+    /**
+     * Applies the idempotent scripts under db/schema (partial and operator-class indexes that
+     * JPA annotations cannot declare) once Hibernate has created or updated the tables.
+     */
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public DataSourceInitializer schemaScriptsInitializer(DataSource dataSource) throws IOException {
+        Resource[] scripts = new PathMatchingResourcePatternResolver().getResources(SCHEMA_SCRIPTS);
+        Arrays.sort(scripts, Comparator.comparing(Resource::getFilename, Comparator.nullsLast(String::compareTo)));
+
+        DataSourceInitializer initializer = new DataSourceInitializer();
+        initializer.setDataSource(dataSource);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(scripts));
+        return initializer;
+    }
+}
@@ -1,6 +1,11 @@
 package com.task.edtech.services.security;
 
+import com.task.edtech.db.security.AuthenticatedUser;
+import com.task.edtech.db.security.JwtClaims;
 import com.task.edtech.db.security.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,9 +27,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
 
+    private Timer validTokenTimer;
+    private Timer invalidTokenTimer;
+
+    @PostConstruct
+    void initMetrics() {
+        validTokenTimer = verifyTimer("valid");
+        invalidTokenTimer = verifyTimer("invalid");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
                                     HttpServletResponse response, 
@@ -33,14 +50,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         try {
             String jwt = getJwtFromRequest(request);
+            JwtClaims claims = null;
+            if (StringUtils.hasText(jwt)) {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                claims = jwtUtil.parseToken(jwt).orElse(null);
+                sample.stop(claims != null ? validTokenTimer : invalidTokenTimer);
+            }
 
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
-                String email = jwtUtil.getEmailFromToken(jwt);
-                Long id = jwtUtil.getIdFromToken(jwt);
+            if (claims != null) {
+                String email = claims.getEmail();
+                Long id = claims.getId();
+                AuthenticatedUser principal = new AuthenticatedUser(id, email, claims.getUserType());
 
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(
-                        email, 
+                        principal, 
                         null, 
                         Collections.singletonList(new SimpleGrantedAuthority("ROLE_PROVIDER"))
                     );
@@ -57,6 +81,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder("edtech.jwt.verify")
+                .description("Bearer token verification time, including claims cache hits")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader(AUTHORIZATION_HEADER);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_PREFIX)) {
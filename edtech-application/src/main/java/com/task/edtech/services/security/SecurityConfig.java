@@ -1,6 +1,8 @@
 package com.task.edtech.services.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -28,9 +30,15 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private ServiceApiKeyFilter serviceApiKeyFilter;
+
+    @Value("${app.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -49,9 +57,15 @@ public class SecurityConfig {
                 session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 
             .authorizeHttpRequests(auth -> auth
+                // Streamed responses finish in an async dispatch of a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints
                 .requestMatchers("/api/auth/signup", "/api/auth/login").permitAll()
                 
+                // Change feed of every provider's writes - internal services only
+                .requestMatchers("/api/courses/changes").hasRole("SERVICE")
+
                 // Protected endpoints - all /api/courses/* except search and public
                 .requestMatchers("/api/courses/**").authenticated()
                 .requestMatchers("/api/auth/me", "/api/auth/logout").authenticated()
@@ -60,7 +74,8 @@ public class SecurityConfig {
                 .anyRequest().permitAll()
             )
 
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(serviceApiKeyFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
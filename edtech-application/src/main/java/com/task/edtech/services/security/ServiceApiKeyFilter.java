@@ -0,0 +1,70 @@
+package com.task.edtech.services.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Authenticates internal services (cache invalidators, analytics jobs) by an API key in the
+ * {@value #API_KEY_HEADER} header and gives them the SERVICE role, which users never get.
+ * Keys are listed in {@code app.security.service-api-keys}; with none, no request is a service.
+ */
+@Component
+public class ServiceApiKeyFilter extends OncePerRequestFilter {
+
+    public static final String API_KEY_HEADER = "X-Api-Key";
+
+    private static final String SERVICE_PRINCIPAL = "service";
+
+    @Value("${app.security.service-api-keys:}")
+    private List<String> serviceApiKeys;
+
+    private List<byte[]> keys;
+
+    @PostConstruct
+    void init() {
+        keys = serviceApiKeys.stream()
+                .filter(StringUtils::hasText)
+                .map(key -> key.trim().getBytes(StandardCharsets.UTF_8))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (StringUtils.hasText(apiKey) && isServiceKey(apiKey.getBytes(StandardCharsets.UTF_8))) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    SERVICE_PRINCIPAL,
+                    null,
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_SERVICE"))));
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /** Compares against every key in constant time, so the time taken does not tell how close a guess was. */
+    private boolean isServiceKey(byte[] apiKey) {
+        boolean match = false;
+        for (byte[] key : keys) {
+            match |= MessageDigest.isEqual(key, apiKey);
+        }
+        return match;
+    }
+}
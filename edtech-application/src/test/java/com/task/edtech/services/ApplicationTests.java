@@ -1,9 +1,12 @@
 package com.task.edtech.services;
 
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 
 @SpringBootTest
+@Import(EmbeddedPostgresConfiguration.class)
 class ApplicationTests {
 
 	@Test
@@ -0,0 +1,162 @@
+package com.task.edtech.services;
+
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.exception.EntityNotFoundException;
+import com.task.edtech.db.repository.CourseRepository;
+import com.task.edtech.db.service.CourseService;
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import com.task.edtech.services.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Publish, unpublish and delete, single and bulk, check ownership in the statement's WHERE
+ * clause: one statement per action, and other users' courses are reported as not found.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({EmbeddedPostgresConfiguration.class, TestFixtures.class})
+class CourseBulkActionsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User provider;
+
+    private User otherProvider;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        provider = fixtures.provider("bulk");
+        otherProvider = fixtures.provider("bulk-other");
+        token = fixtures.token(provider);
+    }
+
+    @Test
+    void bulkPublishUpdatesOnlyTheCallersCourses() throws Exception {
+        UUID first = courseService.addOrUpdate(course(provider, "bulk-publish-1")).getInternalId();
+        UUID second = courseService.addOrUpdate(course(provider, "bulk-publish-2")).getInternalId();
+        UUID foreign = courseService.addOrUpdate(course(otherProvider, "bulk-publish-foreign")).getInternalId();
+        UUID missing = UUID.randomUUID();
+
+        bulk("publish", first, second, foreign, missing)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", containsInAnyOrder(first.toString(), second.toString())))
+                .andExpect(jsonPath("$.notFound", containsInAnyOrder(foreign.toString(), missing.toString())));
+
+        assertThat(courseService.findByInternalId(first).getIsPublished()).isTrue();
+        assertThat(courseService.findByInternalId(second).getIsPublished()).isTrue();
+        assertThat(courseService.findByInternalId(foreign).getIsPublished()).isFalse();
+
+        bulk("unpublish", first, foreign)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", containsInAnyOrder(first.toString())))
+                .andExpect(jsonPath("$.notFound", containsInAnyOrder(foreign.toString())));
+        assertThat(courseService.findByInternalId(first).getIsPublished()).isFalse();
+        assertThat(courseService.findByInternalId(second).getIsPublished()).isTrue();
+    }
+
+    @Test
+    void bulkDeleteRemovesOnlyTheCallersCourses() throws Exception {
+        UUID own = courseService.addOrUpdate(course(provider, "bulk-delete")).getInternalId();
+        UUID foreign = courseService.addOrUpdate(course(otherProvider, "bulk-delete-foreign")).getInternalId();
+
+        bulk("delete", own, foreign)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", containsInAnyOrder(own.toString())))
+                .andExpect(jsonPath("$.notFound", containsInAnyOrder(foreign.toString())));
+
+        assertThat(courseRepository.findByInternalId(own)).isEmpty();
+        assertThat(courseRepository.findByInternalId(foreign)).isPresent();
+    }
+
+    @Test
+    void bulkRequestsNeedCourseIds() throws Exception {
+        mockMvc.perform(post("/api/courses/bulk/publish")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"courseIds\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void singleCourseActionsAreScopedToTheOwner() {
+        Course course = courseService.addOrUpdate(course(provider, "bulk-single"));
+
+        assertThatThrownBy(() -> courseService.publishCourse(course.getInternalId(), otherProvider.getId()))
+                .isInstanceOf(EntityNotFoundException.class);
+        assertThatThrownBy(() -> courseService.delete(course.getInternalId(), otherProvider.getId()))
+                .isInstanceOf(EntityNotFoundException.class);
+
+        statistics.clear();
+        Course published = courseService.publishCourse(course.getInternalId(), provider.getId());
+        assertThat(published.getIsPublished()).isTrue();
+        // the UPDATE ... RETURNING, the catalog version bump and the course_changes insert, plus a
+        // course_changes_seq call whenever the pooled id block (50) runs out
+        assertThat(statistics.getPrepareStatementCount()).isBetween(3L, 4L);
+
+        Course changed = course(provider, "bulk-single-renamed");
+        Course updated = courseService.updateCourse(course.getInternalId(), changed);
+        assertThat(updated.getTitle()).isEqualTo("bulk-single-renamed");
+        // updates keep the published flag, whatever the body says
+        assertThat(updated.getIsPublished()).isTrue();
+
+        courseService.delete(course.getInternalId(), provider.getId());
+        assertThat(courseRepository.findByInternalId(course.getInternalId())).isEmpty();
+    }
+
+    private ResultActions bulk(String action, UUID... courseIds) throws Exception {
+        StringBuilder body = new StringBuilder("{\"courseIds\": [");
+        for (int i = 0; i < courseIds.length; i++) {
+            body.append(i > 0 ? ", " : "").append('"').append(courseIds[i]).append('"');
+        }
+        body.append("]}");
+        return mockMvc.perform(post("/api/courses/bulk/" + action)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body.toString()));
+    }
+
+    private static Course course(User owner, String title) {
+        return TestFixtures.course(owner, title).build();
+    }
+}
@@ -0,0 +1,144 @@
+package com.task.edtech.services;
+
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.CourseChange;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.repository.CourseRepository;
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import com.task.edtech.services.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/courses/bulk with JSON arrays and NDJSON: chunked upserts by title, batched inserts,
+ * and per-course error reporting that does not fail the rest of the import.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({EmbeddedPostgresConfiguration.class, TestFixtures.class})
+class CourseBulkImportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void importsJsonArrayInBatches() throws Exception {
+        String token = fixtures.token(fixtures.provider("bulk-array"));
+        String body = IntStream.range(0, 1000)
+                .mapToObj(i -> course("array-" + i, "v1"))
+                .collect(Collectors.joining(",", "[", "]"));
+
+        statistics.clear();
+        mockMvc.perform(post("/api/courses/bulk")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1000))
+                .andExpect(jsonPath("$.updated").value(0))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        // two chunks: a title lookup each, sequence calls and insert batches of 50 for the courses
+        // and for their course_changes rows, not a statement per row
+        assertThat(statistics.getEntityStatistics(Course.class.getName()).getInsertCount()).isEqualTo(1000);
+        assertThat(statistics.getEntityStatistics(CourseChange.class.getName()).getInsertCount()).isEqualTo(1000);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(100);
+    }
+
+    @Test
+    void upsertsNdjsonByTitleAndReportsInvalidCourses() throws Exception {
+        User provider = fixtures.provider("bulk-ndjson");
+        String token = fixtures.token(provider);
+
+        mockMvc.perform(post("/api/courses/bulk")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(course("ndjson-0", "v1") + "\n" + course("ndjson-1", "v1") + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2));
+
+        String body = String.join("\n", List.of(
+                course("ndjson-0", "v2"),                     // update
+                "{\"category\":\"CODING\",\"mode\":\"ONLINE\"}", // DTO validation: no title or start date
+                course("ndjson-2", "v1").replace("ONLINE", "IN_PERSON"), // entity validation: no address
+                course("ndjson-3", "v1"),                     // create
+                course("ndjson-3", "v2")));                   // same title again in this import
+
+        mockMvc.perform(post("/api/courses/bulk")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.updated").value(2))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[1].index").value(2))
+                .andExpect(jsonPath("$.errors[1].message").value("Address and PIN code are required for in-person courses"));
+
+        assertThat(courseRepository.getAllByUserId(provider.getId()))
+                .extracting(Course::getTitle, Course::getDescription)
+                .containsExactlyInAnyOrder(
+                        tuple("ndjson-0", "v2"),
+                        tuple("ndjson-1", "v1"),
+                        tuple("ndjson-3", "v2"));
+    }
+
+    @Test
+    void stopsAtUnreadableInputAndKeepsWhatWasImported() throws Exception {
+        String token = fixtures.token(fixtures.provider("bulk-malformed"));
+
+        mockMvc.perform(post("/api/courses/bulk")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(course("malformed-0", "v1") + "\n{\"title\": oops}\n" + course("malformed-2", "v1")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1));
+    }
+
+    private static String course(String title, String description) {
+        return "{\"title\":\"" + title + "\",\"description\":\"" + description + "\",\"category\":\"CODING\","
+                + "\"mode\":\"ONLINE\",\"startDate\":\"" + LocalDate.now().plusDays(3) + "\",\"isFree\":true}";
+    }
+}
@@ -0,0 +1,204 @@
+package com.task.edtech.services;
+
+import com.jayway.jsonpath.JsonPath;
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.service.CourseChangeService;
+import com.task.edtech.db.service.CourseService;
+import com.task.edtech.services.security.ServiceApiKeyFilter;
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import com.task.edtech.services.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Course writes add changes to the outbox in their own transaction, and the change feed returns
+ * them in order and resumes from any change's cursor. Only internal services read the feed.
+ */
+@SpringBootTest(properties = "app.security.service-api-keys=" + CourseChangeFeedTests.SERVICE_KEY)
+@AutoConfigureMockMvc
+@Import({EmbeddedPostgresConfiguration.class, TestFixtures.class})
+class CourseChangeFeedTests {
+
+    static final String SERVICE_KEY = "changes-test-service-key";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseChangeService courseChangeService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User provider;
+
+    private String token;
+
+    /** Cursor of the last change written before the test. */
+    private String head;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        provider = fixtures.provider("changes");
+        token = fixtures.token(provider);
+
+        head = null;
+        List<String> page;
+        do {
+            page = changesSince(head, 10_000);
+            if (!page.isEmpty()) {
+                head = JsonPath.read(page.get(page.size() - 1), "$.cursor");
+            }
+        } while (!page.isEmpty());
+    }
+
+    @Test
+    void everyWriteAddsOneChangeInOrder() throws Exception {
+        Course course = courseService.addOrUpdate(course("changes-lifecycle"));
+        UUID id = course.getInternalId();
+        courseService.publishCourse(id, provider.getId());
+        courseService.unpublishCourses(provider.getId(), List.of(id));
+        courseService.deleteCourses(provider.getId(), List.of(id));
+
+        List<String> changes = changesSince(head, null);
+
+        assertThat(changes).hasSize(4);
+        assertThat(changes).allSatisfy(change ->
+                assertThat(JsonPath.<String>read(change, "$.courseId")).isEqualTo(id.toString()));
+        assertThat(changes.stream().map(change -> JsonPath.<String>read(change, "$.type")).toList())
+                .containsExactly("SAVED", "PUBLISHED", "UNPUBLISHED", "DELETED");
+        assertThat(JsonPath.<String>read(changes.get(1), "$.category")).isEqualTo("CODING");
+        assertThat(JsonPath.<Boolean>read(changes.get(1), "$.isPublished")).isTrue();
+    }
+
+    @Test
+    void publishingAPublishedCourseAddsNoChange() throws Exception {
+        Course course = courseService.addOrUpdate(course("changes-republished"));
+        UUID id = course.getInternalId();
+        courseService.publishCourse(id, provider.getId());
+
+        assertThat(courseService.publishCourses(provider.getId(), List.of(id))).containsExactly(id);
+        courseService.unpublishCourses(provider.getId(), List.of(id));
+
+        assertThat(changesSince(head, null).stream().map(change -> JsonPath.<String>read(change, "$.type")).toList())
+                .containsExactly("SAVED", "PUBLISHED", "UNPUBLISHED");
+    }
+
+    @Test
+    void rolledBackWritesLeaveNoChange() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            courseService.addOrUpdate(course("changes-rolled-back"));
+            status.setRollbackOnly();
+        });
+        Course kept = courseService.addOrUpdate(course("changes-kept"));
+
+        List<String> changes = changesSince(head, null);
+
+        assertThat(changes).hasSize(1);
+        assertThat(JsonPath.<String>read(changes.get(0), "$.courseId")).isEqualTo(kept.getInternalId().toString());
+    }
+
+    @Test
+    void resumesFromTheCursorOfAnyChange() throws Exception {
+        Set<String> titles = Set.of("changes-page-1", "changes-page-2", "changes-page-3");
+        for (String title : titles) {
+            courseService.addOrUpdate(course(title));
+        }
+        List<String> all = changesSince(head, null);
+
+        List<String> paged = new ArrayList<>();
+        String cursor = head;
+        List<String> page;
+        while (!(page = changesSince(cursor, 1)).isEmpty()) {
+            paged.addAll(page);
+            cursor = JsonPath.read(page.get(0), "$.cursor");
+        }
+
+        assertThat(all).hasSize(titles.size());
+        assertThat(paged).containsExactlyElementsOf(all);
+    }
+
+    @Test
+    void retentionDeletesOnlyOlderChanges() throws Exception {
+        courseService.addOrUpdate(course("changes-expired"));
+        Thread.sleep(10);
+        LocalDateTime cutoff = LocalDateTime.now();
+        Thread.sleep(10);
+        Course kept = courseService.addOrUpdate(course("changes-retained"));
+
+        assertThat(courseChangeService.deleteChangesBefore(cutoff)).isPositive();
+
+        List<String> changes = changesSince(head, null);
+        assertThat(changes).hasSize(1);
+        assertThat(JsonPath.<String>read(changes.get(0), "$.courseId")).isEqualTo(kept.getInternalId().toString());
+    }
+
+    @Test
+    void rejectsMalformedCursor() throws Exception {
+        mockMvc.perform(asService(get("/api/courses/changes").param("since", "not-a-cursor")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void isNotOpenToUsersOrWrongKeys() throws Exception {
+        mockMvc.perform(get("/api/courses/changes").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/courses/changes").header(ServiceApiKeyFilter.API_KEY_HEADER, SERVICE_KEY + "x"))
+                .andExpect(status().isForbidden());
+    }
+
+    /** Changes after the cursor (from the start when null), one JSON object per element. */
+    private List<String> changesSince(String cursor, Integer limit) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/courses/changes");
+        if (cursor != null) {
+            request.param("since", cursor);
+        }
+        if (limit != null) {
+            request.param("limit", String.valueOf(limit));
+        }
+        MvcResult started = mockMvc.perform(asService(request)).andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        return body.isBlank() ? List.of() : List.of(body.split("\n"));
+    }
+
+    private static MockHttpServletRequestBuilder asService(MockHttpServletRequestBuilder request) {
+        return request.header(ServiceApiKeyFilter.API_KEY_HEADER, SERVICE_KEY);
+    }
+
+    private Course course(String title) {
+        return TestFixtures.course(provider, title).build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.task.edtech.services;
+
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.service.CourseService;
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import com.task.edtech.services.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Course reads and search return ETags; a matching If-None-Match is answered with 304 without
+ * loading any course, and any write makes the old ETag stale.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({EmbeddedPostgresConfiguration.class, TestFixtures.class})
+class CourseHttpCachingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User provider;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        provider = fixtures.provider("caching");
+        token = fixtures.token(provider);
+    }
+
+    @Test
+    void courseByIdRevalidatesWithoutLoadingTheCourse() throws Exception {
+        Course course = courseService.addOrUpdate(course("caching-single"));
+        String path = "/api/courses/" + course.getInternalId();
+
+        String eTag = fetch(path, null)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotBlank();
+
+        statistics.clear();
+        fetch(path, eTag)
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        course.setDescription("changed");
+        courseService.addOrUpdate(course);
+        fetch(path, eTag)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    void myCoursesChangeTheirETagOnCreateAndDelete() throws Exception {
+        Course first = courseService.addOrUpdate(course("caching-mine-1"));
+
+        String eTag = fetch("/api/courses/mine", null)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        statistics.clear();
+        fetch("/api/courses/mine", eTag).andExpect(status().isNotModified());
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        courseService.addOrUpdate(course("caching-mine-2"));
+        String afterCreate = fetch("/api/courses/mine", eTag)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        courseService.delete(courseService.findByInternalId(first.getInternalId()));
+        fetch("/api/courses/mine", afterCreate).andExpect(status().isOk());
+    }
+
+    @Test
+    void searchIsPubliclyCacheableUntilTheCatalogChanges() throws Exception {
+        String path = "/api/courses/search?category=COOKING";
+        String eTag = fetch(path, null)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        statistics.clear();
+        fetch(path, eTag)
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public"));
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        Course course = course("caching-search");
+        course.setCategory(CourseCategory.COOKING);
+        course.setIsPublished(true);
+        courseService.addOrUpdate(course);
+
+        fetch(path, eTag)
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("caching-search")));
+    }
+
+    private ResultActions fetch(String path, String ifNoneMatch) throws Exception {
+        MockHttpServletRequestBuilder request = get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private Course course(String title) {
+        return TestFixtures.course(provider, title).build();
+    }
+}
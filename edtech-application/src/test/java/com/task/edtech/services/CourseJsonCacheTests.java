@@ -0,0 +1,153 @@
+package com.task.edtech.services;
+
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.dto.CourseSearchResponse;
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.service.CourseService;
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import com.task.edtech.services.support.TestFixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Search and /mine copy course JSON from the cache: the responses must be what Jackson writes for
+ * the same courses, and an edited course must come out edited on the next request.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({EmbeddedPostgresConfiguration.class, TestFixtures.class})
+class CourseJsonCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = fixtures.provider("json-cache");
+    }
+
+    @Test
+    void myCoursesMatchJacksonAcrossEdits() throws Exception {
+        courseService.addOrUpdate(course(null, "Ceramics \"Wheel\" Basics", "795001"));
+        Course edited = courseService.addOrUpdate(course(null, "Glazing", "795002"));
+        String token = fixtures.token(provider);
+
+        assertThat(objectMapper.readTree(myCourses(token))).isEqualTo(objectMapper.readTree(expectedMyCourses()));
+
+        courseService.addOrUpdate(course(edited.getInternalId(), "Glazing and Firing", "795002"));
+
+        String json = myCourses(token);
+        assertThat(json).contains("Glazing and Firing");
+        assertThat(objectMapper.readTree(json)).isEqualTo(objectMapper.readTree(expectedMyCourses()));
+    }
+
+    @Test
+    void searchPageMatchesJacksonAcrossEdits() throws Exception {
+        courseService.addOrUpdate(course(null, "Raku Firing", "796001"));
+        Course edited = courseService.addOrUpdate(course(null, "Kiln Safety", "796002"));
+
+        assertThat(objectMapper.readTree(search())).isEqualTo(objectMapper.readTree(expectedSearch()));
+
+        courseService.addOrUpdate(course(edited.getInternalId(), "Kiln Safety Refresher", "796002"));
+
+        String json = search();
+        assertThat(json).contains("Kiln Safety Refresher");
+        assertThat(objectMapper.readTree(json)).isEqualTo(objectMapper.readTree(expectedSearch()));
+    }
+
+    @Test
+    void repeatedSearchCopiesTheCachedJson() throws Exception {
+        courseService.addOrUpdate(course(null, "Mosaic Tiling", "796101"));
+        search("796101");
+        double hits = gets("hit");
+        double misses = gets("miss");
+
+        search("796101");
+
+        assertThat(gets("hit")).isEqualTo(hits + 1);
+        assertThat(gets("miss")).isEqualTo(misses);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("edtech.course.json.cache.gets").tag("result", result).counter().count();
+    }
+
+    private String myCourses(String token) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/courses/mine")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private String expectedMyCourses() {
+        List<CourseDTO> courses = new ArrayList<>();
+        courseService.forEachByUserId(provider.getId(), courses::add);
+        return objectMapper.writeValueAsString(courses);
+    }
+
+    private String search() throws Exception {
+        return search("796");
+    }
+
+    private String search(String pinCode) throws Exception {
+        return mockMvc.perform(get("/api/courses/search").param("pinCode", pinCode)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + fixtures.token(provider)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private String expectedSearch() {
+        List<CourseDTO> courses = courseService.searchCourses("796", null, null, null).getContent();
+        return objectMapper.writeValueAsString(new CourseSearchResponse(courses, null, null));
+    }
+
+    private Course course(UUID internalId, String title, String pinCode) {
+        return TestFixtures.inPersonCourse(provider, title, pinCode)
+                .internalId(internalId)
+                .description("Studio course with émail-free sign-up")
+                .category(CourseCategory.ARTS)
+                .isFree(false)
+                .priceAmount(new BigDecimal("1250.00"))
+                .capacity(12)
+                .isPublished(true)
+                .build();
+    }
+}
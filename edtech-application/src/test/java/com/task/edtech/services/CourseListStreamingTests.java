@@ -0,0 +1,103 @@
+package com.task.edtech.services;
+
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.service.CourseService;
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import com.task.edtech.services.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/courses/mine streams every course from one cursor query into a JSON array. Rows are
+ * selected straight into DTOs: neither course nor owner entities are loaded.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({EmbeddedPostgresConfiguration.class, TestFixtures.class})
+class CourseListStreamingTests {
+
+    private static final int COURSES = 1500;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void streamsAllCoursesAsOneJsonArray() throws Exception {
+        User provider = fixtures.provider("streaming");
+        List<Course> courses = IntStream.range(0, COURSES)
+                .<Course>mapToObj(i -> TestFixtures.course(provider, "streaming-" + i)
+                        .description("Description of course " + i)
+                        .startDate(LocalDate.now().plusDays(1 + i % 30))
+                        .build())
+                .toList();
+        courseService.importChunk(provider.getId(), courses);
+        String token = fixtures.token(provider);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        MvcResult started = mockMvc.perform(get("/api/courses/mine")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(COURSES))
+                .andExpect(jsonPath("$[0].title").exists())
+                .andExpect(jsonPath("$[0].startDate").isString());
+
+        assertThat(statistics.getEntityStatistics(Course.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+        // the ETag digest, then a single cursor query for the courses
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        // the summary view leaves out the description and has its own ETag
+        MvcResult summary = mockMvc.perform(get("/api/courses/mine").param("view", "summary")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-summary\"")))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(summary))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(COURSES))
+                .andExpect(jsonPath("$[0].title").exists())
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+    }
+}
@@ -0,0 +1,135 @@
+package com.task.edtech.services;
+
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.dto.CourseFacets;
+import com.task.edtech.db.dto.SearchCursor;
+import com.task.edtech.db.dto.SearchFilters;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import com.task.edtech.db.service.CourseService;
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import com.task.edtech.services.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Facet counts must equal what one search per facet value returns, which is the fan-out the
+ * facets replace.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({EmbeddedPostgresConfiguration.class, TestFixtures.class})
+class CourseSearchFacetsTests {
+
+    /** PIN codes of this test's courses start with it; no other test uses it. */
+    private static final String PIN_CODE_PREFIX = "77";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void facetCountsMatchOneSearchPerValue() {
+        Random random = new Random(19);
+        User provider = fixtures.provider("facets");
+        for (int i = 0; i < 150; i++) {
+            boolean free = random.nextBoolean();
+            courseService.addOrUpdate(TestFixtures.inPersonCourse(provider, "facets-" + i,
+                            PIN_CODE_PREFIX + (1000 + random.nextInt(20)))
+                    .category(CourseCategory.values()[random.nextInt(CourseCategory.values().length)])
+                    .mode(CourseMode.values()[random.nextInt(CourseMode.values().length)])
+                    .startDate(LocalDate.now().plusDays(random.nextInt(40) - 5))
+                    .isFree(free)
+                    .priceAmount(free ? null : BigDecimal.valueOf(100))
+                    .isPublished(random.nextInt(4) > 0)
+                    .build());
+        }
+
+        for (int i = 0; i < 20; i++) {
+            SearchFilters filters = new SearchFilters();
+            filters.setPinCode(PIN_CODE_PREFIX + (random.nextBoolean() ? "" : String.valueOf(10 + random.nextInt(2))));
+            filters.setCategory(random.nextBoolean() ? null
+                    : CourseCategory.values()[random.nextInt(CourseCategory.values().length)]);
+            filters.setMode(random.nextBoolean() ? null : CourseMode.values()[random.nextInt(CourseMode.values().length)]);
+            filters.setIsFree(random.nextBoolean() ? null : random.nextBoolean());
+            filters.setStartFrom(random.nextBoolean() ? null : LocalDate.now().plusDays(random.nextInt(10)));
+            filters.setStartTo(random.nextBoolean() ? null : LocalDate.now().plusDays(10 + random.nextInt(30)));
+
+            CourseFacets facets = courseService.countSearchFacets(null, filters);
+
+            for (CourseCategory category : CourseCategory.values()) {
+                assertThat(facets.getCategory().get(category))
+                        .as("%s for %s", category, filters)
+                        .isEqualTo(count(filters, f -> f.setCategory(category)));
+            }
+            for (CourseMode mode : CourseMode.values()) {
+                assertThat(facets.getMode().get(mode))
+                        .as("%s for %s", mode, filters)
+                        .isEqualTo(count(filters, f -> f.setMode(mode)));
+            }
+            for (boolean isFree : new boolean[]{true, false}) {
+                assertThat(facets.getIsFree().get(isFree))
+                        .as("isFree=%s for %s", isFree, filters)
+                        .isEqualTo(count(filters, f -> f.setIsFree(isFree)));
+            }
+        }
+    }
+
+    @Test
+    void searchReturnsFacetsOnlyWhenAsked() throws Exception {
+        String token = fixtures.token(fixtures.provider("facets-search"));
+
+        mockMvc.perform(get("/api/courses/search").param("pinCode", PIN_CODE_PREFIX)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets").doesNotExist());
+
+        mockMvc.perform(get("/api/courses/search").param("pinCode", PIN_CODE_PREFIX).param("facets", "true")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets.category.YOGA").isNumber())
+                .andExpect(jsonPath("$.facets.mode.IN_PERSON").isNumber())
+                .andExpect(jsonPath("$.facets.isFree['true']").isNumber());
+    }
+
+    /** Courses the search returns, over every page, with one filter replaced. */
+    private long count(SearchFilters filters, Consumer<SearchFilters> override) {
+        SearchFilters variant = new SearchFilters(filters.getPinCode(), filters.getCategory(), filters.getMode(),
+                filters.getIsFree(), filters.getStartFrom(), filters.getStartTo(), null, null);
+        override.accept(variant);
+
+        long count = 0;
+        SearchCursor after = null;
+        while (true) {
+            Slice<CourseDTO> page = courseService.searchCourses(null, variant, after, 100);
+            count += page.getNumberOfElements();
+            if (!page.hasNext()) {
+                return count;
+            }
+            CourseDTO last = page.getContent().get(page.getNumberOfElements() - 1);
+            after = new SearchCursor(last.getStartDate(), last.getId());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.task.edtech.services;
+
+import com.task.edtech.db.dto.SearchFilters;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import com.task.edtech.db.service.CourseService;
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import com.task.edtech.services.support.StatementRecorder;
+import com.task.edtech.services.support.StatementRecorder.RecordedStatement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAIN-based regression check for the search indexes in db/schema. Each test runs a search
+ * through CourseService, takes the statement Hibernate sent for it, with its bound parameters, and
+ * replays it as a server-side prepared statement on a seeded catalog. After five executions
+ * PostgreSQL settles on the plan it keeps for the statement, the generic plan unless the
+ * parameter-specific ones were cheaper, which is what the driver's prepared statements run in
+ * production; EXPLAIN of the next execution shows it. The planner settings are left alone, so if a
+ * change to the query or the indexes stops that plan from using the intended index, the assertion
+ * fails.
+ */
+@SpringBootTest
+@Import({EmbeddedPostgresConfiguration.class, StatementRecorder.class})
+class CourseSearchIndexTests {
+
+    private static final String PLAN = "index_check";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    private Connection connection;
+
+    private boolean prepared;
+
+    @BeforeEach
+    void seedCatalog() throws SQLException {
+        connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (id, internal_id, email, password_hash, name, user_type, created_at, updated_at) " +
+                    "VALUES (900000, gen_random_uuid(), 'explain@test.local', 'x', 'Explain', 'PROVIDER', now(), now())");
+            // 20k PIN code centres spread over India, next to the few from the PIN code file
+            statement.execute("INSERT INTO pin_code_locations (pin_code, latitude, longitude) " +
+                    "SELECT (100000 + g * 45)::text, 8 + (g * 37 % 2700) / 100.0, 68 + (g * 53 % 2900) / 100.0 " +
+                    "FROM generate_series(0, 19999) g " +
+                    "ON CONFLICT (pin_code) DO NOTHING");
+            // 20k courses, 5% published, spread over categories, modes, those PIN codes, a year of
+            // dates and two-word titles
+            statement.execute("INSERT INTO courses (id, internal_id, user_id, title, description, category, mode, " +
+                    "address, pin_code, start_date, is_free, price_amount, is_published, created_at, updated_at) " +
+                    "SELECT 900000 + g, gen_random_uuid(), 900000, " +
+                    "(ARRAY['Pottery','Yoga','Piano','Python','Baking','Spanish','Marketing','Painting','Chess'," +
+                    "'Guitar','Sketching'])[1 + g % 11] || ' ' || " +
+                    "(ARRAY['Weekend','Basics','Bootcamp','Masterclass','Workshop','Course','Studio','Clinic'," +
+                    "'Retreat','Circle','Lab','Sessions','Camp'])[1 + g % 13] || ' ' || g, " +
+                    "'Explain course ' || g, " +
+                    "(ARRAY['YOGA','CODING','MUSIC','FITNESS','COOKING','LANGUAGE','BUSINESS','ARTS','OTHER'])[1 + g % 9], " +
+                    "CASE WHEN g % 3 = 0 THEN 'ONLINE' ELSE 'IN_PERSON' END, 'Street ' || g, " +
+                    "(100000 + (g * 7919) % 20000 * 45)::text, " +
+                    "current_date + (g % 365), g % 7 = 0, CASE WHEN g % 7 = 0 THEN NULL ELSE 100 END, " +
+                    "g % 20 = 0, now(), now() " +
+                    "FROM generate_series(1, 20000) g");
+            statement.execute("ANALYZE courses, pin_code_locations");
+        }
+    }
+
+    @AfterEach
+    void rollback() throws SQLException {
+        connection.rollback();
+        // prepared statements outlive the transaction, and the connection goes back to the pool
+        if (prepared) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DEALLOCATE " + PLAN);
+            }
+        }
+        connection.close();
+    }
+
+    @Test
+    void unfilteredSearchSeeksPublishedStartDateIndex() throws SQLException {
+        assertThat(explainSearch(filters -> {
+        })).contains("idx_course_published_start");
+    }
+
+    @Test
+    void categoryAndModeSearchUsesCompositeIndex() throws SQLException {
+        assertThat(explainSearch(filters -> {
+            filters.setCategory(CourseCategory.YOGA);
+            filters.setMode(CourseMode.ONLINE);
+        })).contains("idx_course_published_category_mode_start");
+    }
+
+    @Test
+    void pinCodePrefixSearchUsesPatternOpsIndex() throws SQLException {
+        assertThat(explainSearch(filters -> filters.setPinCode("1234")))
+                .contains("idx_course_published_pin_code");
+    }
+
+    @Test
+    void radiusSearchJoinsPinCodesInBoundingBoxToInPersonIndex() throws SQLException {
+        assertThat(explainSearch(filters -> {
+            filters.setPinCode("560001");
+            filters.setRadiusKm(10.0);
+        }))
+                .contains("idx_pin_code_location_lat_lon")
+                .contains("idx_course_published_in_person_pin_code");
+    }
+
+    @Test
+    void textSearchUsesInvertedIndex() throws SQLException {
+        assertThat(explainSearch(filters -> filters.setText("pottery weekend")))
+                .contains("idx_course_published_search_vector");
+    }
+
+    /** The plan PostgreSQL keeps for the statement of a first-page search with these filters. */
+    private String explainSearch(Consumer<SearchFilters> filters) throws SQLException {
+        SearchFilters searchFilters = new SearchFilters();
+        filters.accept(searchFilters);
+        List<RecordedStatement> courseQueries = statementRecorder
+                .record(() -> courseService.searchCourses(null, searchFilters, null, 20))
+                .stream()
+                .filter(recorded -> recorded.sql().toLowerCase(Locale.ROOT).contains("from courses"))
+                .toList();
+        assertThat(courseQueries).hasSize(1);
+        RecordedStatement search = courseQueries.get(0);
+
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(search.prepare(PLAN));
+            prepared = true;
+            // the first five executions get plans for their own parameters; from the sixth on the
+            // server decides between those and the generic plan
+            for (int i = 0; i < 5; i++) {
+                statement.execute(search.execute(PLAN));
+            }
+            try (ResultSet rs = statement.executeQuery("EXPLAIN " + search.execute(PLAN))) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+        }
+        return plan.toString();
+    }
+}
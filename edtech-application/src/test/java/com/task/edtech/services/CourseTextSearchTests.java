@@ -0,0 +1,170 @@
+package com.task.edtech.services;
+
+import com.jayway.jsonpath.JsonPath;
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.service.CourseService;
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import com.task.edtech.services.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The q parameter of the search endpoint: matches words in title and description through the
+ * tsvector index, ranks by relevance, highlights the matches and pages with the cursor.
+ */
+@SpringBootTest(properties = "app.search.max-text-results=" + CourseTextSearchTests.MAX_TEXT_RESULTS)
+@AutoConfigureMockMvc
+@Import({EmbeddedPostgresConfiguration.class, TestFixtures.class})
+class CourseTextSearchTests {
+
+    static final int MAX_TEXT_RESULTS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private CourseService courseService;
+
+    private User provider;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        provider = fixtures.provider("text-search");
+        token = fixtures.token(provider);
+    }
+
+    @Test
+    void matchesEveryWordAndHighlightsThem() throws Exception {
+        courseService.addOrUpdate(course("Beginner Ukulele Basics",
+                "Your first ukulele chords and strumming patterns for beginners.", CourseCategory.MUSIC, true));
+        courseService.addOrUpdate(course("Ukulele Jam Night", "Open jam for all levels.", CourseCategory.MUSIC, true));
+        courseService.addOrUpdate(course("Beginner Watercolour", "Painting basics.", CourseCategory.ARTS, true));
+        courseService.addOrUpdate(course("Beginner Ukulele Private", "Unpublished.", CourseCategory.MUSIC, false));
+
+        mockMvc.perform(search().param("q", "beginner ukulele"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses", hasSize(1)))
+                .andExpect(jsonPath("$.courses[0].title").value("Beginner Ukulele Basics"))
+                .andExpect(jsonPath("$.courses[0].titleHighlight").value("<mark>Beginner</mark> <mark>Ukulele</mark> Basics"))
+                .andExpect(jsonPath("$.courses[0].descriptionHighlight", containsString("<mark>ukulele</mark>")))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void ranksByRelevanceAcrossPagesAndAppliesFilters() throws Exception {
+        courseService.addOrUpdate(course("Mandolin Weekend", "Mandolin tremolo, mandolin chords, mandolin songs.",
+                CourseCategory.MUSIC, true));
+        courseService.addOrUpdate(course("Folk Strings", "Guitar, banjo and some mandolin.", CourseCategory.MUSIC, true));
+        courseService.addOrUpdate(course("Instrument Care", "Restringing a mandolin.", CourseCategory.OTHER, true));
+
+        List<String> titles = new ArrayList<>();
+        List<Double> relevances = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = search().param("q", "mandolin").param("limit", "1");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            titles.addAll(JsonPath.read(body, "$.courses[*].title"));
+            List<Number> pageRelevances = JsonPath.read(body, "$.courses[*].relevance");
+            pageRelevances.forEach(relevance -> relevances.add(relevance.doubleValue()));
+            cursor = JsonPath.read(body, "$.nextCursor");
+        } while (cursor != null);
+
+        assertThat(titles).hasSize(3).first().isEqualTo("Mandolin Weekend");
+        assertThat(titles).containsExactlyInAnyOrder("Mandolin Weekend", "Folk Strings", "Instrument Care");
+        assertThat(relevances).isSortedAccordingTo((left, right) -> Double.compare(right, left));
+
+        mockMvc.perform(search().param("q", "mandolin").param("category", "OTHER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses", hasSize(1)))
+                .andExpect(jsonPath("$.courses[0].title").value("Instrument Care"));
+    }
+
+    @Test
+    void escapesCourseTextInHighlights() throws Exception {
+        courseService.addOrUpdate(course("Theremin <img src=x onerror=alert(1)",
+                "Theremin & \"noise\" <b onclick=alert(1)", CourseCategory.MUSIC, true));
+
+        mockMvc.perform(search().param("q", "theremin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses", hasSize(1)))
+                .andExpect(jsonPath("$.courses[0].titleHighlight", startsWith("<mark>Theremin</mark> &lt;img")))
+                .andExpect(jsonPath("$.courses[0].titleHighlight", not(containsString("<img"))))
+                .andExpect(jsonPath("$.courses[0].descriptionHighlight", containsString("<mark>Theremin</mark> &amp;")))
+                .andExpect(jsonPath("$.courses[0].descriptionHighlight", not(containsString("<b"))));
+    }
+
+    @Test
+    void ranksEveryMatchAndReturnsTheMostRelevant() throws Exception {
+        for (int i = 1; i <= MAX_TEXT_RESULTS; i++) {
+            Course course = course("Bassoon Lesson " + i, "Reeds and scales.", CourseCategory.MUSIC, true);
+            course.setStartDate(LocalDate.now().plusDays(i));
+            courseService.addOrUpdate(course);
+        }
+        Course late = course("Bassoon Bassoon Bassoon", "Bassoon, bassoon and more bassoon.", CourseCategory.MUSIC, true);
+        late.setStartDate(LocalDate.now().plusDays(MAX_TEXT_RESULTS + 10));
+        courseService.addOrUpdate(late);
+
+        // the latest-starting course is the most relevant; the equally ranked lessons fill the
+        // rest of the bound soonest first
+        mockMvc.perform(search().param("q", "bassoon").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses", hasSize(MAX_TEXT_RESULTS)))
+                .andExpect(jsonPath("$.courses[0].title").value("Bassoon Bassoon Bassoon"))
+                .andExpect(jsonPath("$.courses[*].title", not(hasItem("Bassoon Lesson " + MAX_TEXT_RESULTS))))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void rejectsTextCombinedWithRadius() throws Exception {
+        mockMvc.perform(search()
+                        .param("q", "yoga")
+                        .param("pinCode", "560001")
+                        .param("radiusKm", "5"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MockHttpServletRequestBuilder search() {
+        return get("/api/courses/search").header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private Course course(String title, String description, CourseCategory category, boolean published) {
+        return TestFixtures.course(provider, title)
+                .description(description)
+                .category(category)
+                .isPublished(published)
+                .build();
+    }
+}
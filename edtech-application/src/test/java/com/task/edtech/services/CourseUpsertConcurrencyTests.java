@@ -0,0 +1,117 @@
+package com.task.edtech.services;
+
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.exception.EntityNotFoundException;
+import com.task.edtech.db.repository.CourseRepository;
+import com.task.edtech.db.service.CourseService;
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import com.task.edtech.services.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Parallel writers saving the same provider's titles must converge on one row per title without
+ * duplicate-key failures, and updates must keep each row's internalId and createdAt.
+ */
+@SpringBootTest
+@Import({EmbeddedPostgresConfiguration.class, TestFixtures.class})
+class CourseUpsertConcurrencyTests {
+
+    private static final int WRITERS = 8;
+    private static final int ROUNDS = 25;
+    private static final int TITLES = 5;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Test
+    void parallelWritersOfTheSameTitlesDoNotConflict() throws Exception {
+        User provider = fixtures.provider("upsert-concurrency");
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        try {
+            for (int writer = 0; writer < WRITERS; writer++) {
+                int writerId = writer;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        courseService.addOrUpdate(course(provider, "upsert-" + (round % TITLES), writerId + "/" + round));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(); // rethrows any duplicate-key failure
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Course> courses = courseRepository.getAllByUserId(provider.getId());
+        assertThat(courses).extracting(Course::getTitle)
+                .containsExactlyInAnyOrder("upsert-0", "upsert-1", "upsert-2", "upsert-3", "upsert-4");
+
+        // another round of updates keeps each row's identity and creation time
+        Map<String, Course> before = courses.stream().collect(Collectors.toMap(Course::getTitle, c -> c));
+        for (int i = 0; i < TITLES; i++) {
+            Course saved = courseService.addOrUpdate(course(provider, "upsert-" + i, "final"));
+            Course original = before.get(saved.getTitle());
+            assertThat(saved.getInternalId()).isEqualTo(original.getInternalId());
+            assertThat(saved.getCreatedAt()).isEqualTo(original.getCreatedAt());
+            assertThat(saved.getDescription()).isEqualTo("final");
+        }
+
+        // by internalId the course can be renamed, again without changing identity
+        Course renamed = course(provider, "upsert-renamed", "renamed");
+        renamed.setInternalId(before.get("upsert-0").getInternalId());
+        Course saved = courseService.addOrUpdate(renamed);
+        assertThat(saved.getId()).isEqualTo(before.get("upsert-0").getId());
+        assertThat(saved.getTitle()).isEqualTo("upsert-renamed");
+
+        // a given internalId that does not exist is not taken: the new course gets a generated one
+        UUID madeUp = UUID.randomUUID();
+        Course created = course(provider, "upsert-new", "new");
+        created.setInternalId(madeUp);
+        UUID createdId = courseService.addOrUpdate(created).getInternalId();
+        assertThat(createdId).isNotEqualTo(madeUp);
+        assertThat(createdId.version()).isEqualTo(7);
+
+        // another provider's internalId is not found, and their course is left as it was
+        User other = fixtures.provider("upsert-other");
+        Course foreign = course(other, "upsert-foreign", "foreign");
+        foreign.setInternalId(before.get("upsert-1").getInternalId());
+        assertThatThrownBy(() -> courseService.addOrUpdate(foreign)).isInstanceOf(EntityNotFoundException.class);
+        assertThat(courseService.findByInternalId(foreign.getInternalId()).getTitle()).isEqualTo("upsert-1");
+    }
+
+    private static Course course(User provider, String title, String description) {
+        return TestFixtures.course(provider, title)
+                .description(description)
+                .build();
+    }
+}
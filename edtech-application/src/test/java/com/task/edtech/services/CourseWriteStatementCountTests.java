@@ -0,0 +1,111 @@
+package com.task.edtech.services;
+
+import com.task.edtech.db.converter.CourseConverter;
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import com.task.edtech.db.enums.UserType;
+import com.task.edtech.db.service.CourseService;
+import com.task.edtech.db.service.UserService;
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import com.task.edtech.services.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A course create or update, converted from a DTO the way the controller does it, must read the
+ * owner at most once: once on a cold user cache, not at all on a warm one.
+ */
+@SpringBootTest
+@Import(EmbeddedPostgresConfiguration.class)
+class CourseWriteStatementCountTests {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CourseConverter courseConverter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void createAndUpdateReadTheOwnerAtMostOnce() {
+        User provider = userService.addOrUpdate(
+                TestFixtures.user("statements-provider@test.local", "Statements", UserType.PROVIDER));
+
+        // cold cache: one owner read and the upsert, plus a courses_seq call whenever the
+        // pooled id block (50) runs out; every write ends with the catalog version update and the
+        // course_changes insert, plus a course_changes_seq call when that block runs out
+        statistics.clear();
+        Course created = courseService.addOrUpdate(courseConverter.toEntity(dto(null, "statements-1"), provider.getId()));
+        assertThat(userReads()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+
+        // warm cache: no owner read
+        statistics.clear();
+        courseService.addOrUpdate(courseConverter.toEntity(dto(null, "statements-2"), provider.getId()));
+        assertThat(userReads()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+
+        // update by internalId: a single UPDATE ... RETURNING, then the catalog version update and
+        // the course_changes insert (and its sequence call, at most)
+        statistics.clear();
+        CourseDTO update = dto(created.getInternalId(), "statements-1 renamed");
+        courseService.addOrUpdate(courseConverter.toEntity(update, provider.getId()));
+        assertThat(userReads()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isBetween(3L, 4L);
+    }
+
+    @Test
+    void rejectsOwnersThatAreNotProviders() {
+        User learner = userService.addOrUpdate(
+                TestFixtures.user("statements-learner@test.local", "Statements", UserType.LEARNER));
+
+        assertThatThrownBy(() -> courseService.addOrUpdate(courseConverter.toEntity(dto(null, "statements-3"), learner.getId())))
+                .hasMessage("Only provider could create courses");
+    }
+
+    private long userReads() {
+        return statistics.getEntityStatistics(User.class.getName()).getLoadCount();
+    }
+
+    private static CourseDTO dto(UUID id, String title) {
+        CourseDTO dto = new CourseDTO();
+        dto.setId(id);
+        dto.setTitle(title);
+        dto.setCategory(CourseCategory.values()[0]);
+        dto.setMode(CourseMode.values()[0]);
+        dto.setAddress("Street 1");
+        dto.setPinCode("560001");
+        dto.setStartDate(LocalDate.now().plusDays(7));
+        dto.setIsFree(true);
+        return dto;
+    }
+}
@@ -0,0 +1,229 @@
+package com.task.edtech.services;
+
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.dto.NearbyCourseDTO;
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import com.task.edtech.db.geo.GeoPoint;
+import com.task.edtech.db.geo.PinCodeDirectory;
+import com.task.edtech.db.repository.CourseRepository;
+import com.task.edtech.db.search.CourseSearchEngine;
+import com.task.edtech.db.search.CourseSearchQuery;
+import com.task.edtech.db.search.DatabaseCourseSearchEngine;
+import com.task.edtech.db.search.InMemoryCourseSearchEngine;
+import com.task.edtech.db.service.CourseService;
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import com.task.edtech.services.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The in-memory engine must return exactly what the database query returns, page for page and
+ * facet for facet, after the catalog has gone through creates, publishes, unpublishes and deletes.
+ */
+@SpringBootTest(properties = "app.search.engine=memory")
+@Import({EmbeddedPostgresConfiguration.class, TestFixtures.class})
+class InMemoryCourseSearchEngineTests {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseSearchEngine courseSearchEngine;
+
+    @Autowired
+    private PinCodeDirectory pinCodeDirectory;
+
+    /** Not a bean under app.search.engine=memory; used for the facet counts to compare against. */
+    private final DatabaseCourseSearchEngine databaseEngine = new DatabaseCourseSearchEngine();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(databaseEngine, "courseRepository", courseRepository);
+    }
+
+    @Test
+    void matchesDatabaseSearchAfterIncrementalUpdates() {
+        assertThat(courseSearchEngine).isInstanceOf(InMemoryCourseSearchEngine.class);
+
+        Random random = new Random(42);
+        User provider = fixtures.provider("memory-engine");
+
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            courses.add(courseService.addOrUpdate(randomCourse(random, provider, "memory-" + i)));
+        }
+        for (int i = 0; i < 40; i++) {
+            courseService.unpublishCourse(courses.get(i).getInternalId(), provider.getId());
+        }
+        for (int i = 40; i < 80; i++) {
+            courseService.publishCourse(courses.get(i).getInternalId(), provider.getId());
+        }
+        for (int i = 80; i < 100; i++) {
+            courseService.delete(courseService.findByInternalId(courses.get(i).getInternalId()));
+        }
+        // the bulk paths change many courses in one transaction, applied to the index as one batch
+        courseService.unpublishCourses(provider.getId(), internalIds(courses.subList(100, 140)));
+        courseService.publishCourses(provider.getId(), internalIds(courses.subList(120, 160)));
+        courseService.deleteCourses(provider.getId(), internalIds(courses.subList(150, 170)));
+        List<Course> imported = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            imported.add(randomCourse(random, provider, "memory-import-" + i));
+        }
+        courseService.importChunk(provider.getId(), imported);
+
+        for (int i = 0; i < 200; i++) {
+            LocalDate startFrom = LocalDate.now().plusDays(random.nextInt(10));
+            CourseSearchQuery query = new CourseSearchQuery(
+                    random.nextBoolean() ? null : "56" + random.nextInt(12),
+                    null,
+                    null,
+                    null,
+                    random.nextBoolean() ? null : CourseCategory.values()[random.nextInt(CourseCategory.values().length)],
+                    random.nextBoolean() ? null : CourseMode.values()[random.nextInt(CourseMode.values().length)],
+                    random.nextBoolean() ? null : random.nextBoolean(),
+                    startFrom,
+                    random.nextBoolean() ? null : LocalDate.now().plusDays(random.nextInt(30)),
+                    null,
+                    null,
+                    startFrom,
+                    random.nextBoolean() ? new UUID(0L, 0L) : UUID.randomUUID(),
+                    1 + random.nextInt(30));
+
+            Slice<CourseDTO> fromMemory = courseSearchEngine.search(query);
+            Slice<CourseDTO> fromDatabase = courseRepository.searchCourses(
+                    query.getPinCodePrefix() != null ? query.getPinCodePrefix() + "%" : null,
+                    query.getCategory(),
+                    query.getMode(),
+                    query.getIsFree(),
+                    query.getStartTo(),
+                    query.getAfterStartDate(),
+                    query.getAfterId(),
+                    PageRequest.ofSize(query.getPageSize()));
+
+            assertThat(fromMemory.map(CourseDTO::getId).getContent())
+                    .as("results for %s", query)
+                    .isEqualTo(fromDatabase.map(CourseDTO::getId).getContent());
+            assertThat(fromMemory.hasNext()).as("hasNext for %s", query).isEqualTo(fromDatabase.hasNext());
+            assertThat(courseSearchEngine.countFacets(query))
+                    .as("facets for %s", query)
+                    .isEqualTo(databaseEngine.countFacets(query));
+        }
+    }
+
+    @Test
+    void radiusSearchMatchesDatabaseAndRanksByDistance() {
+        Random random = new Random(7);
+        User provider = fixtures.provider("memory-radius");
+
+        // Bengaluru, its outskirts, Mysuru, Chennai, Delhi and a PIN code without a location
+        String[] pinCodes = {"560001", "560034", "560066", "560103", "562110", "570001", "600001", "110001", "999999"};
+        for (int i = 0; i < 200; i++) {
+            boolean free = random.nextBoolean();
+            courseService.addOrUpdate(TestFixtures.inPersonCourse(provider, "radius-" + i,
+                            pinCodes[random.nextInt(pinCodes.length)])
+                    .category(CourseCategory.values()[random.nextInt(CourseCategory.values().length)])
+                    .mode(random.nextInt(4) == 0 ? CourseMode.ONLINE : CourseMode.IN_PERSON)
+                    .startDate(LocalDate.now().plusDays(random.nextInt(40) - 5))
+                    .isFree(free)
+                    .priceAmount(free ? null : BigDecimal.valueOf(100))
+                    .isPublished(random.nextInt(5) > 0)
+                    .build());
+        }
+
+        GeoPoint centre = pinCodeDirectory.locate("560001").orElseThrow();
+        for (int i = 0; i < 50; i++) {
+            double radiusKm = 1 + random.nextInt(400);
+            CourseCategory category = random.nextBoolean()
+                    ? null
+                    : CourseCategory.values()[random.nextInt(CourseCategory.values().length)];
+            Boolean isFree = random.nextBoolean() ? null : random.nextBoolean();
+            LocalDate startFrom = LocalDate.now().plusDays(random.nextInt(10));
+            LocalDate startTo = random.nextBoolean() ? null : LocalDate.now().plusDays(random.nextInt(30));
+            int pageSize = 1 + random.nextInt(15);
+            Supplier<CourseSearchQuery> firstPage = () -> new CourseSearchQuery(
+                    null, centre, radiusKm, null, category, null, isFree, startFrom, startTo,
+                    -1.0, null, startFrom, new UUID(0L, 0L), pageSize);
+
+            List<NearbyCourseDTO> fromMemory = allPages(firstPage.get(), courseSearchEngine::search);
+            List<NearbyCourseDTO> fromDatabase = allPages(firstPage.get(), query -> {
+                double[] box = centre.boundingBox(query.getRadiusKm());
+                return courseRepository.searchCoursesNear(
+                        centre.latitude(), centre.longitude(), box[0], box[1], box[2], box[3],
+                        query.getRadiusKm(), query.getCategory(), query.getMode(), query.getIsFree(),
+                        query.getStartFrom(), query.getStartTo(), query.getAfterDistanceKm(),
+                        query.getAfterStartDate(), query.getAfterId(), PageRequest.ofSize(query.getPageSize()));
+            });
+
+            assertThat(fromMemory).extracting(CourseDTO::getId)
+                    .as("results within %s km", radiusKm)
+                    .isEqualTo(fromDatabase.stream().map(CourseDTO::getId).toList());
+            assertThat(fromMemory).allSatisfy(course -> {
+                assertThat(course.getMode()).isEqualTo(CourseMode.IN_PERSON);
+                assertThat(course.getDistanceKm()).isLessThanOrEqualTo(radiusKm);
+            });
+            assertThat(fromMemory).extracting(NearbyCourseDTO::getDistanceKm).isSorted();
+            assertThat(courseSearchEngine.countFacets(firstPage.get()))
+                    .as("facets within %s km", radiusKm)
+                    .isEqualTo(databaseEngine.countFacets(firstPage.get()));
+        }
+    }
+
+    /** Follows the cursor from the first page to the last, the way the search endpoint does. */
+    private static List<NearbyCourseDTO> allPages(
+            CourseSearchQuery query, Function<CourseSearchQuery, Slice<? extends CourseDTO>> engine) {
+        List<NearbyCourseDTO> courses = new ArrayList<>();
+        while (true) {
+            Slice<? extends CourseDTO> page = engine.apply(query);
+            page.forEach(course -> courses.add((NearbyCourseDTO) course));
+            if (!page.hasNext()) {
+                return courses;
+            }
+            NearbyCourseDTO last = courses.get(courses.size() - 1);
+            query.setAfterDistanceKm(last.getDistanceKm());
+            query.setAfterStartDate(last.getStartDate());
+            query.setAfterId(last.getId());
+        }
+    }
+
+    private static Course randomCourse(Random random, User provider, String title) {
+        boolean free = random.nextBoolean();
+        return TestFixtures.inPersonCourse(provider, title, "56" + random.nextInt(100))
+                .category(CourseCategory.values()[random.nextInt(CourseCategory.values().length)])
+                .mode(CourseMode.values()[random.nextInt(CourseMode.values().length)])
+                .startDate(LocalDate.now().plusDays(random.nextInt(40) - 5))
+                .isFree(free)
+                .priceAmount(free ? null : BigDecimal.valueOf(100))
+                .isPublished(random.nextInt(4) > 0)
+                .build();
+    }
+
+    private static List<UUID> internalIds(List<Course> courses) {
+        return courses.stream().map(Course::getInternalId).toList();
+    }
+}
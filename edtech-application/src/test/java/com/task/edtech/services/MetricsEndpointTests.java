@@ -0,0 +1,62 @@
+package com.task.edtech.services;
+
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.micrometer.metrics.test.autoconfigure.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * After a signup, an authenticated request and a search, the Prometheus scrape shows each layer
+ * of the request separately: HTTP, services, search engine, bcrypt and JWT verification.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@Import(EmbeddedPostgresConfiguration.class)
+class MetricsEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void exposesHotPathMetricsForPrometheus() throws Exception {
+        String signup = mockMvc.perform(post("/api/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"metrics@test.local\",\"password\":\"secret-password\","
+                                + "\"name\":\"Metrics\",\"userType\":\"PROVIDER\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String token = signup.replaceAll(".*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+
+        mockMvc.perform(get("/api/courses/mine").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/courses/search").param("category", "CODING")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket")
+                .contains("edtech_course_service_seconds_bucket")
+                .contains("method=\"searchCourses\"")
+                .contains("edtech_auth_service_seconds_bucket")
+                .contains("edtech_search_query_seconds_count{application=\"edtech.services\",engine=\"database\"}")
+                .contains("edtech_search_results_courses_bucket")
+                .contains("edtech_auth_password_seconds_count{application=\"edtech.services\",operation=\"encode\"}")
+                .contains("edtech_jwt_verify_seconds_count{application=\"edtech.services\",outcome=\"valid\"}");
+    }
+}
@@ -0,0 +1,82 @@
+package com.task.edtech.services;
+
+import com.task.edtech.db.security.PasswordHashingService;
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With one hashing thread busy and the one queue slot taken, a further signup is refused with 503
+ * at once instead of waiting, and the queued work still completes once the thread frees up.
+ */
+@SpringBootTest(properties = {"app.password.pool-size=1", "app.password.queue-capacity=1"})
+@AutoConfigureMockMvc
+@Import(EmbeddedPostgresConfiguration.class)
+class PasswordHashingBackpressureTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void rejectsSignupWhenHashingQueueIsFull() throws Exception {
+        CountDownLatch hashing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.encode(any())).thenAnswer(invocation -> {
+            hashing.countDown();
+            release.await();
+            return "hashed";
+        });
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordHashingService.encode("first"));
+        assertThat(hashing.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordHashingService.encode("second"));
+        awaitQueued();
+
+        long started = System.nanoTime();
+        mockMvc.perform(post("/api/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"busy@test.local\",\"password\":\"secret-password\","
+                                + "\"name\":\"Busy\",\"userType\":\"LEARNER\"}"))
+                .andExpect(status().isServiceUnavailable());
+        assertThat(System.nanoTime() - started).isLessThan(TimeUnit.SECONDS.toNanos(5));
+
+        release.countDown();
+        assertThat(running.get(10, TimeUnit.SECONDS)).isEqualTo("hashed");
+        assertThat(queued.get(10, TimeUnit.SECONDS)).isEqualTo("hashed");
+        assertThat(meterRegistry.get("edtech.auth.password.rejected").counter().count()).isEqualTo(1);
+    }
+
+    private void awaitQueued() throws InterruptedException {
+        for (int i = 0; i < 500 && meterRegistry.get("edtech.auth.password.queue").gauge().value() < 1; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(meterRegistry.get("edtech.auth.password.queue").gauge().value()).isEqualTo(1);
+    }
+}
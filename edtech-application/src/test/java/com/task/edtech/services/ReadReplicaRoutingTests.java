@@ -0,0 +1,229 @@
+package com.task.edtech.services;
+
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.service.CourseService;
+import com.task.edtech.services.support.LaggingReplicaDriver;
+import com.task.edtech.services.support.TestFixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.micrometer.metrics.test.autoconfigure.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With replicas configured, read-only service methods run on the replica pools and writes on the
+ * primary; a provider who has just written reads from the primary until the window has passed,
+ * and the shared user cache is always filled from the primary. The routing is observed through
+ * the {@code edtech.datasource.reads} counters.
+ * <p>
+ * The two replicas are pools on the same embedded server; the second lags behind the primary
+ * while a test freezes it (see {@link LaggingReplicaDriver}), and keeps up otherwise.
+ */
+@SpringBootTest(properties = "app.datasource.replica.read-your-writes-window=1s")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@Import(TestFixtures.class)
+class ReadReplicaRoutingTests {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        String url = POSTGRES.getJdbcUrl("postgres", "postgres");
+        registry.add("app.datasource.replica.urls", () -> url + "," + LaggingReplicaDriver.url(url));
+        registry.add("app.datasource.replica.username", () -> "postgres");
+        registry.add("app.datasource.replica.pool-size", () -> "4");
+    }
+
+    @Test
+    void routesReadsToTheReplicaExceptRightAfterTheUsersOwnWrite() throws Exception {
+        String writer = fixtures.token(fixtures.provider("routing-writer"));
+        String reader = fixtures.token(fixtures.provider("routing-reader"));
+
+        // reads by anyone who has not written go to the replica
+        double[] before = reads();
+        mockMvc.perform(authorized(get("/api/courses/search").param("category", "CODING"), reader))
+                .andExpect(status().isOk());
+        assertThat(reads()[0]).isGreaterThan(before[0]);
+        assertThat(reads()[1]).isEqualTo(before[1]);
+
+        // the write itself runs on the primary without any read-only transaction
+        before = reads();
+        String created = mockMvc.perform(authorized(post("/api/courses"), writer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Routing\",\"category\":\"CODING\",\"mode\":\"ONLINE\","
+                                + "\"startDate\":\"" + LocalDate.now().plusDays(3) + "\",\"isFree\":true}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String courseId = created.replaceAll(".*\"id\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+        assertThat(reads()).isEqualTo(before);
+
+        // the writer's reads go to the primary, including the streamed list on the async thread
+        mockMvc.perform(authorized(get("/api/courses/" + courseId), writer))
+                .andExpect(status().isOk());
+        MvcResult mine = mockMvc.perform(authorized(get("/api/courses/mine"), writer)).andReturn();
+        mockMvc.perform(asyncDispatch(mine)).andExpect(status().isOk());
+        assertThat(reads()[0]).isEqualTo(before[0]);
+        assertThat(reads()[1]).isGreaterThan(before[1]);
+
+        // other users keep reading from the replica meanwhile
+        before = reads();
+        mockMvc.perform(authorized(get("/api/courses/search"), reader))
+                .andExpect(status().isOk());
+        assertThat(reads()[0]).isGreaterThan(before[0]);
+        assertThat(reads()[1]).isEqualTo(before[1]);
+
+        // once the window has passed, the writer is back on the replica
+        Thread.sleep(1100);
+        before = reads();
+        mockMvc.perform(authorized(get("/api/courses/" + courseId), writer))
+                .andExpect(status().isOk());
+        assertThat(reads()[0]).isGreaterThan(before[0]);
+        assertThat(reads()[1]).isEqualTo(before[1]);
+    }
+
+    @Test
+    void userCacheLoadsFromThePrimary() throws Exception {
+        String reader = fixtures.token(fixtures.provider("routing-cached-user"));
+
+        // every node would serve what the cache loads, so a lagging replica must not fill it
+        double[] before = reads();
+        mockMvc.perform(authorized(get("/api/auth/me"), reader))
+                .andExpect(status().isOk());
+        assertThat(reads()[0]).isEqualTo(before[0]);
+        assertThat(reads()[1]).isGreaterThan(before[1]);
+    }
+
+    @Test
+    void searchETagIsTheVersionOfTheRowsItReturns() throws Exception {
+        User provider = fixtures.provider("routing-lag");
+        String reader = fixtures.token(fixtures.provider("routing-lag-reader"));
+        courseService.addOrUpdate(publishedCourse(provider, "Lagging Loom", "794001"));
+        String path = "/api/courses/search?filterPinCode=794";
+
+        String staleETag;
+        String freshETag;
+        try (LaggingReplicaDriver.Freeze lag = LaggingReplicaDriver.freeze(dataSource)) {
+            courseService.addOrUpdate(publishedCourse(provider, "Lagging Lathe", "794002"));
+
+            // searches alternate between the replica that has the new course and the one that
+            // does not; each response carries the version of the rows in its own body
+            Map<Boolean, Set<String>> eTagsByFreshness = new HashMap<>();
+            for (int i = 0; i < 4; i++) {
+                MockHttpServletResponse response = mockMvc.perform(authorized(get(path), reader))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse();
+                eTagsByFreshness.computeIfAbsent(response.getContentAsString().contains("Lagging Lathe"),
+                        fresh -> new HashSet<>()).add(response.getHeader(HttpHeaders.ETAG));
+            }
+            assertThat(eTagsByFreshness.keySet()).containsExactlyInAnyOrder(true, false);
+            assertThat(eTagsByFreshness.get(false)).hasSize(1);
+            assertThat(eTagsByFreshness.get(true)).hasSize(1);
+            staleETag = eTagsByFreshness.get(false).iterator().next();
+            freshETag = eTagsByFreshness.get(true).iterator().next();
+            assertThat(staleETag).isNotEqualTo(freshETag);
+        }
+
+        // once the replica has caught up, the stale ETag gets the new course
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(authorized(get(path), reader).header(HttpHeaders.IF_NONE_MATCH, staleETag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, freshETag))
+                    .andExpect(content().string(containsString("Lagging Lathe")));
+        }
+    }
+
+    /** Read-only transactions routed so far: {replica, primary}. */
+    private double[] reads() {
+        return new double[]{
+                meterRegistry.get("edtech.datasource.reads").tag("target", "replica").counter().count(),
+                meterRegistry.get("edtech.datasource.reads").tag("target", "primary").counter().count()
+        };
+    }
+
+    private static Course publishedCourse(User provider, String title, String pinCode) {
+        return TestFixtures.inPersonCourse(provider, title, pinCode)
+                .isPublished(true)
+                .build();
+    }
+
+    private static MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request, String token) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class PrimaryConfiguration {
+
+        /** Closed with the context, which also owns the replica pool connected to it. */
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() {
+            return POSTGRES;
+        }
+
+        @Bean
+        @Primary
+        DataSource dataSource() {
+            return DataSourceBuilder.create()
+                    .url(POSTGRES.getJdbcUrl("postgres", "postgres"))
+                    .username("postgres")
+                    .build();
+        }
+    }
+}
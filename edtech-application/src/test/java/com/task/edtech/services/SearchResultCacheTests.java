@@ -0,0 +1,125 @@
+package com.task.edtech.services;
+
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.dto.SearchFilters;
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.service.CourseService;
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import com.task.edtech.services.support.TestFixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Slice;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Repeated searches are answered from the result cache without touching the database, and
+ * writes drop exactly the pages they could change.
+ */
+@SpringBootTest(properties = "app.search.result-cache.max-size=1000")
+@Import({EmbeddedPostgresConfiguration.class, TestFixtures.class})
+class SearchResultCacheTests {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User provider;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        provider = fixtures.provider("result-cache");
+    }
+
+    @Test
+    void repeatedSearchIsServedFromCache() {
+        courseService.addOrUpdate(course("Morning Flow", CourseCategory.YOGA, "791001", true));
+        courseService.addOrUpdate(course("Evening Flow", CourseCategory.YOGA, "791002", true));
+        SearchFilters filters = filters("791", CourseCategory.YOGA);
+
+        Slice<CourseDTO> first = courseService.searchCourses(null, filters, null, 10);
+        double hits = hits();
+        statistics.clear();
+        Slice<CourseDTO> second = courseService.searchCourses(null, filters("791", CourseCategory.YOGA), null, 10);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(hits()).isEqualTo(hits + 1);
+        assertThat(second.getContent()).hasSize(2).isEqualTo(first.getContent());
+        assertThat(second.hasNext()).isEqualTo(first.hasNext());
+    }
+
+    @Test
+    void writeDropsOnlyPagesItCouldChange() {
+        courseService.addOrUpdate(course("Power Yoga", CourseCategory.YOGA, "792001", true));
+        courseService.searchCourses(null, filters("792", CourseCategory.YOGA), null, 10);
+
+        courseService.addOrUpdate(course("Drum Circle", CourseCategory.MUSIC, "792002", true));
+        courseService.addOrUpdate(course("Hidden Yoga", CourseCategory.YOGA, "792003", false));
+        statistics.clear();
+        courseService.searchCourses(null, filters("792", CourseCategory.YOGA), null, 10);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        courseService.addOrUpdate(course("Yin Yoga", CourseCategory.YOGA, "792004", true));
+        Slice<CourseDTO> page = courseService.searchCourses(null, filters("792", CourseCategory.YOGA), null, 10);
+        assertThat(page.getContent()).extracting(CourseDTO::getTitle)
+                .containsExactlyInAnyOrder("Power Yoga", "Yin Yoga");
+    }
+
+    @Test
+    void unpublishRemovesCourseFromCachedPage() {
+        Course kept = courseService.addOrUpdate(course("Sitar Basics", CourseCategory.MUSIC, "793001", true));
+        Course withdrawn = courseService.addOrUpdate(course("Tabla Basics", CourseCategory.MUSIC, "793002", true));
+        assertThat(courseService.searchCourses(null, filters("793", null), null, 10).getContent())
+                .extracting(CourseDTO::getId)
+                .containsExactlyInAnyOrder(kept.getInternalId(), withdrawn.getInternalId());
+
+        courseService.unpublishCourse(withdrawn.getInternalId(), provider.getId());
+
+        assertThat(courseService.searchCourses(null, filters("793", null), null, 10).getContent())
+                .extracting(CourseDTO::getId)
+                .containsExactly(kept.getInternalId());
+    }
+
+    private double hits() {
+        return meterRegistry.get("edtech.search.cache.gets").tag("result", "hit").counter().count();
+    }
+
+    private SearchFilters filters(String pinCode, CourseCategory category) {
+        SearchFilters filters = new SearchFilters();
+        filters.setPinCode(pinCode);
+        filters.setCategory(category);
+        return filters;
+    }
+
+    private Course course(String title, CourseCategory category, String pinCode, boolean published) {
+        return TestFixtures.inPersonCourse(provider, title, pinCode)
+                .category(category)
+                .isFree(false)
+                .priceAmount(new BigDecimal("499.50"))
+                .isPublished(published)
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.task.edtech.services;
+
+import com.task.edtech.db.cache.TinyLfuCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The eviction keeps a hot set through a scan, and the listener sees the cache's contents as
+ * they are, whichever way entries leave.
+ */
+class TinyLfuCacheTests {
+
+    @Test
+    void hotKeysSurviveScanOfOneOffKeys() {
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100);
+        IntStream.range(0, 50).forEach(key -> cache.put(key, key));
+        for (int round = 0; round < 3; round++) {
+            IntStream.range(0, 50).forEach(cache::get);
+        }
+
+        // each one-off key is looked up once and then filled, as a search miss does
+        for (int key = 1000; key < 1500; key++) {
+            assertThat(cache.get(key)).isNull();
+            cache.put(key, key);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.evictionCount()).isGreaterThan(0);
+        assertThat(IntStream.range(0, 50).filter(key -> cache.get(key) != null).count()).isEqualTo(50);
+    }
+
+    @Test
+    void listenerTracksEntriesThroughEvictionAndInvalidation() {
+        Map<Integer, Integer> seen = new HashMap<>();
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(10, new TinyLfuCache.Listener<>() {
+            @Override
+            public void added(Integer key, Integer value) {
+                assertThat(seen.put(key, value)).isNull();
+            }
+
+            @Override
+            public void removed(Integer key, Integer value) {
+                assertThat(seen.remove(key)).isEqualTo(value);
+            }
+        });
+
+        IntStream.range(0, 50).forEach(key -> cache.put(key, key));
+        cache.put(49, -49);
+        assertThat(cache.evictionCount()).isGreaterThan(0);
+        assertThat(seen).hasSize(cache.size());
+        seen.forEach((key, value) -> assertThat(cache.get(key)).isEqualTo(value));
+
+        List<Integer> present = List.copyOf(seen.keySet());
+        cache.invalidateAll(() -> List.of(present.get(0), 1000));
+        assertThat(seen).hasSize(present.size() - 1).doesNotContainKey(present.get(0));
+
+        cache.invalidateAll();
+        assertThat(seen).isEmpty();
+    }
+}
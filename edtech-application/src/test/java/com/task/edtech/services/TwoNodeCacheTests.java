@@ -0,0 +1,182 @@
+package com.task.edtech.services;
+
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.dto.SearchFilters;
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.UserType;
+import com.task.edtech.db.service.CourseService;
+import com.task.edtech.db.service.UserService;
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import com.task.edtech.services.support.TestFixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application instances on one database, joined through the in-memory shared cache: what one
+ * node loads the other reads from the shared tier, and a write on either node is visible on the
+ * other straight after it commits, not after the cache TTLs, while the other node's search pages
+ * the write cannot change stay cached.
+ */
+@SpringBootTest(properties = {
+        "app.cache.shared.cluster=" + TwoNodeCacheTests.CLUSTER,
+        "app.search.result-cache.max-size=100"})
+@Import({EmbeddedPostgresConfiguration.class, TestFixtures.class})
+class TwoNodeCacheTests {
+
+    static final String CLUSTER = "two-node-tests";
+
+    /**
+     * The second node; the test context is the first. Closed after the tests, while the test
+     * context, and the database it owns, is still open.
+     */
+    private static ConfigurableApplicationContext otherNode;
+
+    @Autowired
+    private EmbeddedPostgres embeddedPostgres;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void startOtherNode() {
+        if (otherNode != null) {
+            return;
+        }
+        otherNode = new SpringApplicationBuilder(Application.class)
+                .initializers((ApplicationContextInitializer<ConfigurableApplicationContext>) context -> context
+                        .getBeanFactory().registerSingleton("testConfigurationFilter", new TestConfigurationFilter()))
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + embeddedPostgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--app.cache.shared.cluster=" + CLUSTER,
+                        "--app.search.result-cache.max-size=100");
+    }
+
+    @AfterAll
+    static void stopOtherNode() {
+        if (otherNode != null) {
+            otherNode.close();
+            otherNode = null;
+        }
+    }
+
+    @Test
+    void userLoadedOnOneNodeIsSharedAndUpdatesReachTheOther() {
+        UserService otherUsers = otherNode.getBean(UserService.class);
+        User user = userService.addOrUpdate(TestFixtures.user("two-nodes-user@test.local", "Before", UserType.PROVIDER));
+
+        assertThat(otherUsers.getCachedById(user.getId()).getName()).isEqualTo("Before");
+        assertThat(otherUsers.getCachedById(user.getId()).getPasswordHash()).isNull();
+
+        // the other node's load went to the shared tier, so this node reads no row
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        assertThat(userService.getCachedById(user.getId()).getName()).isEqualTo("Before");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        userService.addOrUpdate(TestFixtures.user("two-nodes-user@test.local", "After", UserType.PROVIDER));
+
+        assertThat(otherUsers.getCachedById(user.getId()).getName()).isEqualTo("After");
+        assertThat(userService.getCachedById(user.getId()).getName()).isEqualTo("After");
+    }
+
+    @Test
+    void courseWriteOnOneNodeDropsSearchPagesOnTheOther() {
+        CourseService otherCourses = otherNode.getBean(CourseService.class);
+        User provider = fixtures.provider("two-nodes-courses");
+        courseService.addOrUpdate(course(provider, "Pottery Taster", "797001"));
+
+        assertThat(otherCourses.searchCourses(null, filters(), null, 10).getContent())
+                .extracting(CourseDTO::getTitle)
+                .containsExactly("Pottery Taster");
+
+        courseService.addOrUpdate(course(provider, "Pottery Weekend", "797002"));
+
+        assertThat(otherCourses.searchCourses(null, filters(), null, 10).getContent())
+                .extracting(CourseDTO::getTitle)
+                .containsExactlyInAnyOrder("Pottery Taster", "Pottery Weekend");
+    }
+
+    @Test
+    void courseWriteOnOneNodeKeepsPagesItCannotChangeOnTheOther() {
+        CourseService otherCourses = otherNode.getBean(CourseService.class);
+        MeterRegistry otherMeters = otherNode.getBean(MeterRegistry.class);
+        User provider = fixtures.provider("two-nodes-unrelated");
+        courseService.addOrUpdate(course(provider, "Clay Modelling", "798001"));
+        SearchFilters arts = filters("798");
+        arts.setCategory(CourseCategory.ARTS);
+        otherCourses.searchCourses(null, arts, null, 10);
+
+        courseService.addOrUpdate(course(provider, "Clay Music", "798002", CourseCategory.MUSIC));
+        double hits = otherMeters.get("edtech.search.cache.gets").tag("result", "hit").counter().count();
+
+        assertThat(otherCourses.searchCourses(null, arts, null, 10).getContent())
+                .extracting(CourseDTO::getTitle)
+                .containsExactly("Clay Modelling");
+        assertThat(otherMeters.get("edtech.search.cache.gets").tag("result", "hit").counter().count())
+                .isEqualTo(hits + 1);
+    }
+
+    private static SearchFilters filters() {
+        return filters("797");
+    }
+
+    private static SearchFilters filters(String pinCode) {
+        SearchFilters filters = new SearchFilters();
+        filters.setPinCode(pinCode);
+        return filters;
+    }
+
+    private static Course course(User provider, String title, String pinCode) {
+        return course(provider, title, pinCode, CourseCategory.ARTS);
+    }
+
+    private static Course course(User provider, String title, String pinCode, CourseCategory category) {
+        return TestFixtures.inPersonCourse(provider, title, pinCode)
+                .category(category)
+                .isPublished(true)
+                .build();
+    }
+
+    /**
+     * The second node is started outside the test framework, so its component scan would pick
+     * up the test configurations (and their embedded databases); this keeps them out.
+     */
+    static class TestConfigurationFilter extends TypeExcludeFilter {
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.task.edtech.services;
+
+import com.task.edtech.services.support.EmbeddedPostgresConfiguration;
+import com.task.edtech.services.support.TestFixtures;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs authenticated reads on far more virtual threads than the test pool's 10 connections, so
+ * requests park in Hikari and in pgjdbc socket reads, and fails if JFR sees a virtual thread
+ * pinned to its carrier while parked (a synchronized block or native frame around blocking I/O).
+ */
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+@AutoConfigureMockMvc
+@Import({EmbeddedPostgresConfiguration.class, TestFixtures.class})
+class VirtualThreadPinningTests {
+
+    private static final int REQUESTS = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void requestsDoNotPinCarrierThreads() throws Exception {
+        String token = fixtures.token(fixtures.provider("pinning"));
+
+        ConcurrentLinkedQueue<RecordedEvent> pinned = new ConcurrentLinkedQueue<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinned::add);
+            recording.startAsync();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> requests = new ArrayList<>();
+                for (int i = 0; i < REQUESTS; i++) {
+                    String path = i % 2 == 0 ? "/api/courses/mine" : "/api/auth/me";
+                    requests.add(executor.submit(() -> {
+                        mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andExpect(status().isOk());
+                        return null;
+                    }));
+                }
+                for (Future<?> request : requests) {
+                    request.get();
+                }
+            }
+            recording.stop();
+        }
+
+        assertThat(pinned).as(() -> pinned.stream().map(VirtualThreadPinningTests::describe)
+                .collect(Collectors.joining("\n\n"))).isEmpty();
+    }
+
+    private static String describe(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return event.toString();
+        }
+        return event.getStackTrace().getFrames().stream()
+                .limit(25)
+                .map(RecordedFrame::getMethod)
+                .map(method -> method.getType().getName() + "." + method.getName())
+                .collect(Collectors.joining("\n  ", "pinned at\n  ", ""));
+    }
+}
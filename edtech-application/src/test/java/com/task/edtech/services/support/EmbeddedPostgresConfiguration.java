@@ -0,0 +1,32 @@
+package com.task.edtech.services.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/**
+ * Boots a throwaway PostgreSQL server for the test context so tests run against the
+ * same dialect, indexes and native SQL as production without Docker or a local install.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class EmbeddedPostgresConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public EmbeddedPostgres embeddedPostgres() throws IOException {
+        return EmbeddedPostgres.start();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+        return DataSourceBuilder.create()
+                .url(embeddedPostgres.getJdbcUrl("postgres", "postgres"))
+                .username("postgres")
+                .build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.task.edtech.services.support;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * JDBC driver for {@code jdbc:lagging:postgresql:...} URLs: connections to the PostgreSQL server
+ * behind them that, while a {@link #freeze} is open, run every transaction on the snapshot taken
+ * when it started, like a streaming replica that has stopped replaying. Lets a test pool point at
+ * the test database and still lag behind it.
+ */
+public class LaggingReplicaDriver implements Driver {
+
+    private static final String PREFIX = "jdbc:lagging:";
+
+    private static final LaggingReplicaDriver INSTANCE = new LaggingReplicaDriver();
+
+    /** The exported snapshot transactions import, or null while the replica keeps up. */
+    private static volatile String snapshot;
+
+    static {
+        try {
+            DriverManager.registerDriver(INSTANCE);
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** The lagging form of a PostgreSQL JDBC URL; registers the driver. */
+    public static String url(String jdbcUrl) {
+        return PREFIX + jdbcUrl.substring("jdbc:".length());
+    }
+
+    /**
+     * Stops the replica at what {@code primary} shows now; it catches up when the result is closed.
+     */
+    public static Freeze freeze(DataSource primary) throws SQLException {
+        Connection exporter = primary.getConnection();
+        try {
+            exporter.setAutoCommit(false);
+            exporter.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try (Statement statement = exporter.createStatement();
+                 ResultSet result = statement.executeQuery("SELECT pg_export_snapshot()")) {
+                result.next();
+                snapshot = result.getString(1);
+            }
+        } catch (SQLException | RuntimeException e) {
+            exporter.close();
+            throw e;
+        }
+        return () -> {
+            // the snapshot can only be imported while the exporting transaction is open
+            snapshot = null;
+            try (exporter) {
+                exporter.rollback();
+            }
+        };
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        Connection target = DriverManager.getConnection("jdbc:" + url.substring(PREFIX.length()), info);
+        return (Connection) Proxy.newProxyInstance(LaggingReplicaDriver.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new LaggingConnection(target));
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    /** An open freeze; closing it lets the replica catch up. */
+    public interface Freeze extends AutoCloseable {
+
+        @Override
+        void close() throws SQLException;
+    }
+
+    /**
+     * Imports the frozen snapshot before the first statement of each transaction. Work in
+     * auto-commit mode (pool validation, say) sees the live database.
+     */
+    private static final class LaggingConnection implements InvocationHandler {
+
+        private final Connection target;
+        private boolean snapshotImported;
+
+        private LaggingConnection(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("commit") || name.equals("rollback") || name.equals("setAutoCommit")) {
+                snapshotImported = false;
+            } else if (name.startsWith("createStatement") || name.startsWith("prepare")) {
+                importSnapshot();
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void importSnapshot() throws SQLException {
+            String frozen = snapshot;
+            if (frozen == null || snapshotImported || target.getAutoCommit()) {
+                return;
+            }
+            try (Statement statement = target.createStatement()) {
+                statement.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+                statement.execute("SET TRANSACTION SNAPSHOT '" + frozen + "'");
+            }
+            snapshotImported = true;
+        }
+    }
+}
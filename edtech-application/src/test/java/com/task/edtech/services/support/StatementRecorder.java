@@ -0,0 +1,197 @@
+package com.task.edtech.services.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Records the prepared statements the application runs on the calling thread inside
+ * {@link #record}: the SQL as Hibernate sent it and the parameters bound to it, so a test can
+ * replay the very same statement itself (under EXPLAIN, say). Imported into a test context, it
+ * wraps the context's DataSource.
+ */
+public class StatementRecorder implements BeanPostProcessor {
+
+    private final ThreadLocal<List<RecordedStatement>> recording = new ThreadLocal<>();
+
+    /** The statements {@code work} executed, in order. */
+    public List<RecordedStatement> record(Runnable work) {
+        List<RecordedStatement> statements = new ArrayList<>();
+        recording.set(statements);
+        try {
+            work.run();
+        } finally {
+            recording.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                return method.getName().equals("getConnection")
+                        ? proxy(Connection.class, (Connection) result, this::connectionCall)
+                        : result;
+            });
+        }
+        return bean;
+    }
+
+    private Object connectionCall(Connection target, Method method, Object[] args) throws Throwable {
+        Object result = method.invoke(target, args);
+        if (!method.getName().equals("prepareStatement")) {
+            return result;
+        }
+        String sql = (String) args[0];
+        Map<Integer, Parameter> parameters = new TreeMap<>();
+        return proxy(PreparedStatement.class, (PreparedStatement) result, (statement, call, callArgs) -> {
+            String name = call.getName();
+            // parameter setters are the only ones taking an index and a value
+            if (name.startsWith("set") && callArgs != null && callArgs.length >= 2
+                    && callArgs[0] instanceof Integer index) {
+                parameters.put(index, Parameter.of(name, callArgs));
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.startsWith("execute") && (callArgs == null || callArgs.length == 0)) {
+                List<RecordedStatement> statements = recording.get();
+                if (statements != null) {
+                    statements.add(new RecordedStatement(sql, List.copyOf(parameters.values())));
+                }
+            }
+            return call.invoke(statement, callArgs);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Call<T> call) {
+        // a pool stays AutoCloseable, so the context still closes it
+        Class<?>[] types = target instanceof AutoCloseable && !AutoCloseable.class.isAssignableFrom(type)
+                ? new Class<?>[]{type, AutoCloseable.class}
+                : new Class<?>[]{type};
+        return type.cast(Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(), types,
+                (InvocationHandler) (proxy, method, args) -> {
+                    try {
+                        return call.invoke(target, method, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }));
+    }
+
+    @FunctionalInterface
+    private interface Call<T> {
+
+        Object invoke(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    /**
+     * One executed statement. {@link #prepare} and {@link #execute} turn it into SQL-level
+     * PREPARE and EXECUTE with the parameter types the driver sent, so the server plans it as it
+     * plans the driver's own server-side prepared statement.
+     */
+    public record RecordedStatement(String sql, List<Parameter> parameters) {
+
+        public String prepare(String name) {
+            StringJoiner types = new StringJoiner(", ", " (", ")").setEmptyValue("");
+            parameters.forEach(parameter -> types.add(parameter.type()));
+            return "PREPARE " + name + types + " AS " + numberedSql();
+        }
+
+        public String execute(String name) {
+            StringJoiner values = new StringJoiner(", ", "(", ")").setEmptyValue("");
+            parameters.forEach(parameter -> values.add(parameter.literal()));
+            return "EXECUTE " + name + values;
+        }
+
+        /** The SQL with its JDBC placeholders numbered $1, $2, ...; quoted text is left alone. */
+        private String numberedSql() {
+            StringBuilder numbered = new StringBuilder(sql.length() + 16);
+            boolean quoted = false;
+            int next = 1;
+            for (int i = 0; i < sql.length(); i++) {
+                char c = sql.charAt(i);
+                if (c == '\'') {
+                    quoted = !quoted;
+                }
+                if (c == '?' && !quoted) {
+                    numbered.append('$').append(next++);
+                } else {
+                    numbered.append(c);
+                }
+            }
+            return numbered.toString();
+        }
+    }
+
+    /** A bound parameter: the PostgreSQL type the driver sends it as, and its value. */
+    public record Parameter(String type, Object value) {
+
+        static Parameter of(String setter, Object[] args) {
+            Object value = args[1];
+            if (setter.equals("setNull")) {
+                return new Parameter(typeName((int) args[1]), null);
+            }
+            if (value == null && args.length > 2 && args[2] instanceof Integer sqlType) {
+                return new Parameter(typeName(sqlType), null);
+            }
+            return new Parameter(value != null ? typeName(value) : "unknown", value);
+        }
+
+        String literal() {
+            return value == null ? "NULL" : "'" + value.toString().replace("'", "''") + "'";
+        }
+
+        private static String typeName(Object value) {
+            return switch (value) {
+                case String s -> "varchar";
+                case Boolean b -> "boolean";
+                case Short s -> "smallint";
+                case Integer i -> "integer";
+                case Long l -> "bigint";
+                case Float f -> "real";
+                case Double d -> "double precision";
+                case BigDecimal d -> "numeric";
+                case LocalDate d -> "date";
+                case java.sql.Date d -> "date";
+                case LocalDateTime t -> "timestamp";
+                case java.sql.Timestamp t -> "timestamp";
+                case UUID id -> "uuid";
+                default -> "unknown";
+            };
+        }
+
+        private static String typeName(int sqlType) {
+            return switch (sqlType) {
+                case Types.VARCHAR, Types.CHAR, Types.LONGVARCHAR, Types.NVARCHAR -> "varchar";
+                case Types.BOOLEAN, Types.BIT -> "boolean";
+                case Types.SMALLINT, Types.TINYINT -> "smallint";
+                case Types.INTEGER -> "integer";
+                case Types.BIGINT -> "bigint";
+                case Types.REAL -> "real";
+                case Types.DOUBLE, Types.FLOAT -> "double precision";
+                case Types.NUMERIC, Types.DECIMAL -> "numeric";
+                case Types.DATE -> "date";
+                case Types.TIMESTAMP -> "timestamp";
+                case Types.TIMESTAMP_WITH_TIMEZONE -> "timestamptz";
+                default -> "unknown";
+            };
+        }
+    }
+}
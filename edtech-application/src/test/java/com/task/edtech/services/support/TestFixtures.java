@@ -0,0 +1,70 @@
+package com.task.edtech.services.support;
+
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import com.task.edtech.db.enums.UserType;
+import com.task.edtech.db.security.JwtUtil;
+import com.task.edtech.db.service.UserService;
+
+import java.time.LocalDate;
+
+/**
+ * The users, tokens and courses tests start from. Import it next to the database configuration;
+ * providers get emails of their own, so test classes sharing a context do not see each other's.
+ */
+public class TestFixtures {
+
+    private final UserService userService;
+
+    private final JwtUtil jwtUtil;
+
+    public TestFixtures(UserService userService, JwtUtil jwtUtil) {
+        this.userService = userService;
+        this.jwtUtil = jwtUtil;
+    }
+
+    /** A new provider, saved; {@code name} is its name and the start of its email. */
+    public User provider(String name) {
+        return userService.addOrUpdate(user(name + "-" + System.nanoTime() + "@test.local", name, UserType.PROVIDER));
+    }
+
+    /** A bearer token for the user, as login hands out. */
+    public String token(User user) {
+        return jwtUtil.generateToken(user.getEmail(), user.getId(), user.getUserType());
+    }
+
+    /** A user that is not saved yet; saving another one with the same email updates the first. */
+    public static User user(String email, String name, UserType userType) {
+        return User.builder()
+                .email(email)
+                .passwordHash("x")
+                .name(name)
+                .userType(userType)
+                .build();
+    }
+
+    /**
+     * A free online coding course starting in five days, not published; the test sets whatever
+     * else it depends on before building it.
+     */
+    public static Course.CourseBuilder<?, ?> course(User owner, String title) {
+        return Course.builder()
+                .user(User.builder().id(owner.getId()).build())
+                .title(title)
+                .category(CourseCategory.CODING)
+                .mode(CourseMode.ONLINE)
+                .startDate(LocalDate.now().plusDays(5))
+                .isFree(true)
+                .isPublished(false);
+    }
+
+    /** The same course held in person at {@code pinCode}. */
+    public static Course.CourseBuilder<?, ?> inPersonCourse(User owner, String title, String pinCode) {
+        return course(owner, title)
+                .mode(CourseMode.IN_PERSON)
+                .address("1 Test Street")
+                .pinCode(pinCode);
+    }
+}
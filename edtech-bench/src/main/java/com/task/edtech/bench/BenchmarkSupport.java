@@ -0,0 +1,90 @@
+package com.task.edtech.bench;
+
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import com.task.edtech.db.enums.UserType;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Fixtures shared by the benchmarks. Components are built without a Spring context, so their
+ * {@code @Value}/{@code @Autowired} fields and {@code @PostConstruct} methods are filled in here.
+ */
+final class BenchmarkSupport {
+
+    static final User PROVIDER = User.builder()
+            .id(1L)
+            .internalId(UUID.randomUUID())
+            .email("provider@bench.local")
+            .name("Bench Provider")
+            .passwordHash("x")
+            .userType(UserType.PROVIDER)
+            .build();
+
+    private BenchmarkSupport() {
+    }
+
+    /** Deterministic catalog: the same seed gives the same courses on every run. */
+    static List<Course> courses(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDate today = LocalDate.now();
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean free = random.nextBoolean();
+            CourseMode mode = CourseMode.values()[random.nextInt(CourseMode.values().length)];
+            courses.add(Course.builder()
+                    .id((long) i + 1)
+                    .internalId(new UUID(random.nextLong(), random.nextLong()))
+                    .user(PROVIDER)
+                    .title("Course " + i)
+                    .description("Benchmark course number " + i + " with a description of typical length.")
+                    .category(CourseCategory.values()[random.nextInt(CourseCategory.values().length)])
+                    .mode(mode)
+                    .address(mode == CourseMode.IN_PERSON ? "Street " + i : null)
+                    .pinCode("5600" + String.format("%02d", random.nextInt(100)))
+                    .startDate(today.plusDays(random.nextInt(365)))
+                    .endDate(today.plusDays(365 + random.nextInt(30)))
+                    .scheduleInfo("Mon-Fri 6-7pm")
+                    .priceAmount(free ? null : BigDecimal.valueOf(100 + random.nextInt(900)))
+                    .isFree(free)
+                    .capacity(10 + random.nextInt(40))
+                    .isPublished(true)
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        return courses;
+    }
+
+    static <T> T setField(T target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+            return target;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+
+    static <T> T invoke(T target, String methodName) {
+        try {
+            Method method = target.getClass().getDeclaredMethod(methodName);
+            method.setAccessible(true);
+            method.invoke(target);
+            return target;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot call " + methodName + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.task.edtech.bench;
+
+import com.task.edtech.db.converter.CourseConverter;
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.entity.Course;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/DTO conversion done for every course a controller reads or writes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseConverterBenchmark {
+
+    private CourseConverter converter;
+    private Course course;
+    private CourseDTO dto;
+
+    @Setup
+    public void setUp() {
+        converter = new CourseConverter();
+        course = BenchmarkSupport.courses(1, 42).get(0);
+        dto = converter.toDto(course);
+    }
+
+    @Benchmark
+    public CourseDTO toDto() {
+        return converter.toDto(course);
+    }
+
+    @Benchmark
+    public Course toEntity() {
+        return converter.toEntity(dto, BenchmarkSupport.PROVIDER.getId());
+    }
+}
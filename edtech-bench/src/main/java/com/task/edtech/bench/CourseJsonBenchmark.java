@@ -0,0 +1,91 @@
+package com.task.edtech.bench;
+
+import com.task.edtech.db.cache.CourseJsonCache;
+import com.task.edtech.db.converter.CourseConverter;
+import com.task.edtech.db.dto.CourseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.module.SimpleModule;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Jackson cost of course lists: a search page (20), a full page (100) and a provider's
+ * catalog (1000), as written by /search and /mine and read by /bulk. {@code writeCoursesFromCache}
+ * writes the same bytes with each course copied as raw JSON from a warm {@link CourseJsonCache},
+ * as those endpoints do for courses that have not changed; run with {@code -prof gc} to compare allocation too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseJsonBenchmark {
+
+    private static final TypeReference<List<CourseDTO>> COURSE_LIST = new TypeReference<>() {
+    };
+
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    private JsonMapper mapper;
+    private List<CourseDTO> courses;
+    private byte[] json;
+    private JsonMapper cachingMapper;
+
+    @Setup
+    public void setUp() {
+        mapper = JsonMapper.builder().build();
+        CourseConverter converter = new CourseConverter();
+        courses = BenchmarkSupport.courses(size, 42).stream()
+                .map(converter::toDto)
+                .collect(Collectors.toList());
+        json = mapper.writeValueAsBytes(courses);
+        CourseJsonCache courseJsonCache = new CourseJsonCache(size, new SimpleMeterRegistry());
+        cachingMapper = mapper.rebuild()
+                .addModule(new SimpleModule().addSerializer(CourseDTO.class, new ValueSerializer<CourseDTO>() {
+                    @Override
+                    public void serialize(CourseDTO course, JsonGenerator gen, SerializationContext ctxt) {
+                        gen.writeRawValue(courseJsonCache.toJson(course, mapper::writeValueAsString));
+                    }
+                }))
+                .build();
+        if (!Arrays.equals(writeCoursesFromCache(), json)) {
+            throw new IllegalStateException("CourseJsonCache output differs from Jackson's");
+        }
+    }
+
+    @Benchmark
+    public byte[] writeCourses() {
+        return mapper.writeValueAsBytes(courses);
+    }
+
+    @Benchmark
+    public byte[] writeCoursesFromCache() {
+        return cachingMapper.writeValueAsBytes(courses);
+    }
+
+    @Benchmark
+    public List<CourseDTO> readCourses() {
+        return mapper.readValue(json, COURSE_LIST);
+    }
+}
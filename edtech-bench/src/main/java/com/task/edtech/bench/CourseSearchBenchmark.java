@@ -0,0 +1,104 @@
+package com.task.edtech.bench;
+
+import com.task.edtech.db.converter.CourseConverter;
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import com.task.edtech.db.geo.PinCodeDirectory;
+import com.task.edtech.db.repository.CourseRepository;
+import com.task.edtech.db.search.CourseSearchQuery;
+import com.task.edtech.db.search.InMemoryCourseSearchEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter evaluation of the in-memory search engine over a published catalog: one page of 20
+ * for each filter shape the search endpoint accepts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseSearchBenchmark {
+
+    @Param({"10000", "100000"})
+    public int catalogSize;
+
+    @Param({"none", "category", "categoryModeFree", "pinCodePrefix", "dateWindow", "radius"})
+    public String filter;
+
+    private InMemoryCourseSearchEngine engine;
+    private CourseSearchQuery query;
+
+    @Setup
+    public void setUp() {
+        CourseConverter converter = new CourseConverter();
+        List<CourseDTO> catalog = BenchmarkSupport.courses(catalogSize, 42).stream()
+                .map(converter::toDto)
+                .toList();
+        CourseRepository repository = (CourseRepository) Proxy.newProxyInstance(
+                CourseRepository.class.getClassLoader(),
+                new Class<?>[]{CourseRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAllPublished")) {
+                        return catalog;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        PinCodeDirectory pinCodeDirectory = new PinCodeDirectory();
+        BenchmarkSupport.setField(pinCodeDirectory, "pinCodeFile", new ClassPathResource("geo/pin-codes.csv"));
+        BenchmarkSupport.invoke(pinCodeDirectory, "load");
+
+        engine = new InMemoryCourseSearchEngine();
+        BenchmarkSupport.setField(engine, "courseRepository", repository);
+        BenchmarkSupport.setField(engine, "courseConverter", converter);
+        BenchmarkSupport.setField(engine, "pinCodeDirectory", pinCodeDirectory);
+        engine.rebuild();
+
+        LocalDate today = LocalDate.now();
+        query = new CourseSearchQuery(null, null, null, null, null, null, null, today, null, null, null,
+                today, new UUID(0L, 0L), 20);
+        switch (filter) {
+            case "category" -> query.setCategory(CourseCategory.CODING);
+            case "categoryModeFree" -> {
+                query.setCategory(CourseCategory.CODING);
+                query.setMode(CourseMode.IN_PERSON);
+                query.setIsFree(true);
+            }
+            case "pinCodePrefix" -> query.setPinCodePrefix("56004");
+            case "dateWindow" -> query.setStartTo(today.plusDays(7));
+            case "radius" -> {
+                query.setNear(pinCodeDirectory.locate("560001").orElseThrow());
+                query.setRadiusKm(10.0);
+                query.setAfterDistanceKm(-1.0);
+            }
+            default -> {
+            }
+        }
+    }
+
+    @Benchmark
+    public Slice<CourseDTO> search() {
+        return engine.search(query);
+    }
+}
@@ -0,0 +1,102 @@
+package com.task.edtech.bench;
+
+import com.task.edtech.db.entity.TimeOrderedUuid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Batched inserts into a table keyed like courses (a bigint id and a unique uuid internal_id),
+ * with random (version 4) or time-ordered (version 7) internal ids. Needs a PostgreSQL database,
+ * given with -p jdbcUrl=... -p user=... -p password=...; the table bench_internal_ids is recreated
+ * and preloaded for each trial, and the size of its internal_id index is printed at the end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class InternalIdInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    @Param({"jdbc:postgresql://localhost:5432/edtech_db"})
+    public String jdbcUrl;
+
+    @Param({"postgres"})
+    public String user;
+
+    @Param({""})
+    public String password;
+
+    @Param({"random", "timeOrdered"})
+    public String internalId;
+
+    @Param({"1000000"})
+    public int preloadRows;
+
+    private Supplier<UUID> ids;
+    private Connection connection;
+    private PreparedStatement insert;
+    private long nextId;
+
+    @Setup
+    public void setUp() throws SQLException {
+        ids = "random".equals(internalId) ? UUID::randomUUID : TimeOrderedUuid::next;
+        connection = DriverManager.getConnection(
+                jdbcUrl + (jdbcUrl.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true", user, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_internal_ids");
+            statement.execute("CREATE TABLE bench_internal_ids (id bigint PRIMARY KEY, internal_id uuid NOT NULL UNIQUE)");
+        }
+        insert = connection.prepareStatement("INSERT INTO bench_internal_ids (id, internal_id) VALUES (?, ?)");
+        while (nextId < preloadRows) {
+            insertBatch();
+        }
+    }
+
+    /** One batch of {@value #BATCH_SIZE} rows, committed. */
+    @Benchmark
+    public int[] insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setLong(1, ++nextId);
+            insert.setObject(2, ids.get());
+            insert.addBatch();
+        }
+        return insert.executeBatch();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet size = statement.executeQuery(
+                     "SELECT pg_relation_size('bench_internal_ids_internal_id_key')")) {
+            size.next();
+            System.out.printf("%n%s internal ids: %d rows, internal_id index %d MB (%.1f bytes/row)%n",
+                    internalId, nextId, size.getLong(1) >> 20, (double) size.getLong(1) / nextId);
+            statement.execute("DROP TABLE bench_internal_ids");
+        } finally {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.task.edtech.bench;
+
+import com.task.edtech.db.enums.UserType;
+import com.task.edtech.db.security.JwtClaims;
+import com.task.edtech.db.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue (login/signup) and the per-request token check done by JwtAuthenticationFilter,
+ * both from the claims cache and as the signature verification a cache miss costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-minimum-256-bits-for-hmac-sha-algorithms";
+
+    private JwtUtil jwtUtil;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        BenchmarkSupport.setField(jwtUtil, "jwtSecret", SECRET);
+        BenchmarkSupport.setField(jwtUtil, "jwtExpiration", 86_400_000L);
+        BenchmarkSupport.setField(jwtUtil, "claimsCacheSize", 10_000);
+        BenchmarkSupport.invoke(jwtUtil, "init");
+
+        parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        token = jwtUtil.generateToken("provider@bench.local", 1L, UserType.PROVIDER);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("provider@bench.local", 1L, UserType.PROVIDER);
+    }
+
+    @Benchmark
+    public Optional<JwtClaims> parseTokenCached() {
+        return jwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public Claims verifySignature() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,193 @@
+package com.task.edtech.bench;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Closed-loop HTTP load against a running application: {@code clients} concurrent users, each
+ * sending its next request as soon as the previous one answers, alternating the two database-bound
+ * reads {@code GET /api/courses/mine} and {@code GET /api/courses/search}.
+ * <p>
+ * Run it once against the application started with platform threads and once with
+ * {@code SPRING_THREADS_VIRTUAL_ENABLED=true}, same database and same arguments, and compare the
+ * throughput and p99 it prints (and appends as one JSON line to {@code --result}).
+ * <p>
+ * Arguments, all optional: {@code --url=http://localhost:8080 --clients=1000 --warmup=15s
+ * --duration=60s --courses=500 --label=platform --result=target/load-result.jsonl}; the leading
+ * dashes may be left out.
+ */
+public final class LoadTest {
+
+    private static final JsonMapper JSON = JsonMapper.builder().build();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final String url;
+
+    private LoadTest(String url) {
+        this.url = url;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "true");
+        }
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        Duration warmup = Duration.parse("PT" + options.getOrDefault("warmup", "15s"));
+        Duration duration = Duration.parse("PT" + options.getOrDefault("duration", "60s"));
+        int courses = Integer.parseInt(options.getOrDefault("courses", "500"));
+        String label = options.getOrDefault("label", "run");
+
+        LoadTest loadTest = new LoadTest(url);
+        String token = loadTest.setUp(courses);
+
+        System.out.printf("Warming up %s with %d clients for %s%n", url, clients, warmup);
+        loadTest.run(token, clients, warmup);
+        System.out.printf("Measuring for %s%n", duration);
+        Result result = loadTest.run(token, clients, duration);
+
+        String summary = result.toJson(label, clients);
+        System.out.println(summary);
+        String resultFile = options.get("result");
+        if (resultFile != null) {
+            Path path = Path.of(resultFile);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.writeString(path, summary + System.lineSeparator(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    /**
+     * Signs up a fresh provider and imports published courses for the searches to find.
+     */
+    private String setUp(int courses) throws IOException, InterruptedException {
+        String email = "load-" + UUID.randomUUID() + "@bench.local";
+        HttpResponse<String> signup = send(HttpRequest.newBuilder(URI.create(url + "/api/auth/signup"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + email + "\",\"password\":\"load-test-password\","
+                        + "\"name\":\"Load Test\",\"userType\":\"PROVIDER\"}")));
+        JsonNode body = JSON.readTree(signup.body());
+        String token = body.get("token").asString();
+
+        String catalog = IntStream.range(0, courses)
+                .mapToObj(i -> "{\"title\":\"Load course " + i + "\",\"category\":\"CODING\",\"mode\":\"ONLINE\","
+                        + "\"startDate\":\"" + LocalDate.now().plusDays(1 + i % 90) + "\",\"isFree\":true,\"isPublished\":true}")
+                .collect(Collectors.joining("\n"));
+        send(HttpRequest.newBuilder(URI.create(url + "/api/courses/bulk"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(catalog)));
+        return token;
+    }
+
+    private Result run(String token, int clients, Duration duration) throws InterruptedException {
+        HttpRequest[] requests = {
+                HttpRequest.newBuilder(URI.create(url + "/api/courses/mine"))
+                        .header("Authorization", "Bearer " + token).GET().build(),
+                HttpRequest.newBuilder(URI.create(url + "/api/courses/search?category=CODING"))
+                        .header("Authorization", "Bearer " + token).GET().build()
+        };
+        long[][] latencies = new long[clients][];
+        AtomicLong errors = new AtomicLong();
+        long startedAt = System.nanoTime();
+        long endAt = startedAt + duration.toNanos();
+
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int user = c;
+                users.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    for (int i = user; System.nanoTime() < endAt; i++) {
+                        long sentAt = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(requests[i % requests.length],
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                            continue;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - sentAt;
+                    }
+                    latencies[user] = Arrays.copyOf(samples, count);
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - startedAt;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors.get(), elapsed);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new UncheckedIOException(new IOException(
+                    "Setup request failed with " + response.statusCode() + ": " + response.body()));
+        }
+        return response;
+    }
+
+    /** Sorted successful latencies (ns), failed requests and wall time of one run. */
+    private record Result(long[] latencies, long errors, long elapsedNanos) {
+
+        String toJson(String label, int clients) {
+            double seconds = elapsedNanos / 1e9;
+            return String.format(Locale.ROOT,
+                    "{\"label\":\"%s\",\"clients\":%d,\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,"
+                            + "\"p50Ms\":%.2f,\"p99Ms\":%.2f,\"p999Ms\":%.2f,\"maxMs\":%.2f}",
+                    label, clients, latencies.length, errors, latencies.length / seconds,
+                    percentile(0.50), percentile(0.99), percentile(0.999),
+                    latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+        }
+
+        private double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
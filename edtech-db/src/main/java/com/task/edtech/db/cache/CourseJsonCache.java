@@ -0,0 +1,114 @@
+package com.task.edtech.db.cache;
+
+import com.task.edtech.db.dto.CourseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Serialized JSON of recently written courses, keyed by course id, so responses copy the JSON
+ * of a popular course instead of running the serializer over it again. An entry is used only
+ * while the course's fields are still those it was serialized from, so an edited course is
+ * serialized afresh whichever node or path changed it. Eviction is W-TinyLFU, which keeps the
+ * courses that appear in many responses.
+ * <p>
+ * Only plain {@link CourseDTO}s are cached: the distance and relevance of
+ * {@code NearbyCourseDTO} and {@code TextMatchCourseDTO} belong to one search, so those are
+ * serialized every time and not counted as hits or misses.
+ * <p>
+ * Off unless {@code app.cache.course-json-max-size} is positive.
+ */
+@Slf4j
+@Component
+public class CourseJsonCache {
+
+    @Value("${app.cache.course-json-max-size:10000}")
+    private int maxSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TinyLfuCache<UUID, Fragment> fragments;
+
+    private Counter hits;
+
+    private Counter misses;
+
+    public CourseJsonCache() {
+    }
+
+    /** A cache outside Spring, as in the benchmarks. */
+    public CourseJsonCache(int maxSize, MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.meterRegistry = meterRegistry;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        if (maxSize <= 0) {
+            log.info("Course JSON cache disabled");
+            return;
+        }
+        fragments = new TinyLfuCache<>(maxSize);
+        hits = Counter.builder("edtech.course.json.cache.gets")
+                .description("Course JSON asked of the course JSON cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        misses = Counter.builder("edtech.course.json.cache.gets")
+                .description("Course JSON asked of the course JSON cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("edtech.course.json.cache.size", fragments, TinyLfuCache::size)
+                .description("Courses in the course JSON cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("edtech.course.json.cache.evictions", fragments, TinyLfuCache::evictionCount)
+                .description("Courses evicted from the course JSON cache for space")
+                .register(meterRegistry);
+        log.info("Course JSON cache: {} courses", maxSize);
+    }
+
+    /**
+     * The course as JSON: the cached text while the course is unchanged, or what
+     * {@code serializer} writes for it, kept for the next caller. The serializer writes the
+     * course by its runtime type, exactly as the response would otherwise contain it.
+     */
+    public String toJson(CourseDTO course, Function<? super CourseDTO, String> serializer) {
+        if (fragments == null || course.getClass() != CourseDTO.class || course.getId() == null) {
+            return serializer.apply(course);
+        }
+        Fragment fragment = fragments.get(course.getId());
+        if (fragment != null && fragment.source().equals(course)) {
+            hits.increment();
+            return fragment.json();
+        }
+        misses.increment();
+        String json = serializer.apply(course);
+        fragments.put(course.getId(), new Fragment(copy(course), json));
+        return json;
+    }
+
+    public int size() {
+        return fragments != null ? fragments.size() : 0;
+    }
+
+    /** The cache's own copy, so a caller modifying its DTO later cannot make an entry look current. */
+    private static CourseDTO copy(CourseDTO course) {
+        return new CourseDTO(course.getId(), course.getTitle(), course.getDescription(), course.getCategory(),
+                course.getMode(), course.getAddress(), course.getPinCode(), course.getStartDate(),
+                course.getEndDate(), course.getScheduleInfo(), course.getPriceAmount(), course.getIsFree(),
+                course.getCapacity(), course.getIsPublished());
+    }
+
+    private record Fragment(CourseDTO source, String json) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.task.edtech.db.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Small in-process cache whose entries expire at a given instant. Bounded: when full, expired
+ * entries are purged first and then an arbitrary tenth is evicted (hash order), so inserts never
+ * stop and never block readers.
+ */
+public class ExpiringCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public ExpiringCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.expiresAt.isAfter(Instant.now())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Returns the cached value, or loads it and keeps it for {@code ttl}. Null results are not cached.
+     */
+    public V get(K key, Duration ttl, Function<K, V> loader) {
+        V value = get(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value, Instant.now().plus(ttl));
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value, Instant expiresAt) {
+        if (entries.size() >= maxSize) {
+            Instant now = Instant.now();
+            entries.values().removeIf(entry -> !entry.expiresAt.isAfter(now));
+            Iterator<Entry<V>> it = entries.values().iterator();
+            int evict = entries.size() - (maxSize - maxSize / 10);
+            while (evict-- > 0 && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private record Entry<V>(V value, Instant expiresAt) {
+    }
+}
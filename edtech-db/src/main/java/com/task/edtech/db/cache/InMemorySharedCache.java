@@ -0,0 +1,117 @@
+package com.task.edtech.db.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link SharedCache} kept in this JVM. Application instances started in the same JVM with the
+ * same {@code app.cache.shared.cluster} share its values and receive each other's invalidations,
+ * which makes it a stand-in for a networked store when running several nodes on one machine (in
+ * tests, for example). Without a cluster name every instance gets a cluster of its own.
+ * <p>
+ * Invalidations and messages are delivered on the sending thread before the call returns, so
+ * unlike a real channel nothing is ever delayed or lost.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cache.shared.type", havingValue = "memory", matchIfMissing = true)
+public class InMemorySharedCache implements SharedCache {
+
+    private static final Map<String, Cluster> CLUSTERS = new ConcurrentHashMap<>();
+
+    @Value("${app.cache.shared.cluster:}")
+    private String clusterName;
+
+    @Value("${app.cache.shared.max-size:100000}")
+    private int maxSize;
+
+    private Cluster cluster;
+
+    @PostConstruct
+    void init() {
+        if (clusterName.isBlank()) {
+            clusterName = "node-" + UUID.randomUUID();
+        }
+        cluster = CLUSTERS.compute(clusterName, (name, existing) -> {
+            Cluster joined = existing != null ? existing : new Cluster(maxSize);
+            joined.nodes.add(this);
+            return joined;
+        });
+        log.info("Shared cache: in-memory cluster {} ({} nodes)", clusterName, cluster.nodes.size());
+    }
+
+    @PreDestroy
+    void leave() {
+        CLUSTERS.computeIfPresent(clusterName, (name, existing) -> {
+            existing.nodes.remove(this);
+            existing.subscriptions.removeIf(subscription -> subscription.node() == this);
+            return existing.nodes.isEmpty() ? null : existing;
+        });
+    }
+
+    @Override
+    public byte[] get(String cacheName, String key) {
+        return cluster.values.get(new Key(cacheName, key));
+    }
+
+    @Override
+    public void put(String cacheName, String key, byte[] value, Duration ttl) {
+        cluster.values.put(new Key(cacheName, key), value, Instant.now().plus(ttl));
+    }
+
+    @Override
+    public void invalidate(String cacheName, String key) {
+        cluster.values.invalidate(new Key(cacheName, key));
+        publish(cacheName, key);
+    }
+
+    @Override
+    public void publish(String cacheName, String message) {
+        for (Subscription subscription : cluster.subscriptions) {
+            if (subscription.node() != this && subscription.cacheName().equals(cacheName)) {
+                subscription.listener().accept(message);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(String cacheName, Consumer<String> listener) {
+        cluster.subscriptions.add(new Subscription(this, cacheName, listener));
+    }
+
+    @Override
+    public void unsubscribe(String cacheName, Consumer<String> listener) {
+        cluster.subscriptions.remove(new Subscription(this, cacheName, listener));
+    }
+
+    private static final class Cluster {
+
+        private final ExpiringCache<Key, byte[]> values;
+        private final Set<InMemorySharedCache> nodes = ConcurrentHashMap.newKeySet();
+        private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+        private Cluster(int maxSize) {
+            values = new ExpiringCache<>(maxSize);
+        }
+    }
+
+    private record Key(String cacheName, String key) {
+    }
+
+    private record Subscription(InMemorySharedCache node, String cacheName, Consumer<String> listener) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.task.edtech.db.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * The tier of a {@link TwoTierCache} that every node sees, and the channel nodes use to tell
+ * each other about invalidations. Values are opaque bytes with a time to live, as a networked
+ * store keeps them. Invalidations reach the other nodes only: the node that made the change
+ * drops its own near copy itself.
+ * <p>
+ * {@link InMemorySharedCache} is the implementation here; it spans the application instances
+ * of one JVM. Nodes in separate JVMs need an implementation backed by a store and a pub/sub
+ * channel they all reach (Redis, for example).
+ */
+public interface SharedCache {
+
+    /** The value, or null if there is none or it has expired. */
+    byte[] get(String cacheName, String key);
+
+    void put(String cacheName, String key, byte[] value, Duration ttl);
+
+    /**
+     * Removes the value and calls the other nodes' listeners for {@code cacheName} with the key.
+     */
+    void invalidate(String cacheName, String key);
+
+    /**
+     * Calls the other nodes' listeners for {@code cacheName} with the message, leaving the values
+     * alone; for owners that tell each other more than a key.
+     */
+    void publish(String cacheName, String message);
+
+    /**
+     * Calls the listener with each key another node invalidates, and each message it publishes,
+     * in {@code cacheName}.
+     */
+    void subscribe(String cacheName, Consumer<String> listener);
+
+    void unsubscribe(String cacheName, Consumer<String> listener);
+}
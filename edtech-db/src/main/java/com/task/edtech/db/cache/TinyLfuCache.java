@@ -0,0 +1,289 @@
+package com.task.edtech.db.cache;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded in-process cache with W-TinyLFU eviction. New entries enter a small LRU window
+ * (1% of the capacity); an entry pushed out of the window is only admitted to the main area if
+ * its key has been asked for more often recently than the main area's next victim, going by a
+ * count-min sketch of recent requests (misses included). The main area is a segmented LRU:
+ * entries hit again while on probation move to the protected segment (80% of it), so a burst of
+ * one-off keys cannot flush the steady hot set.
+ * <p>
+ * Reads are lock-free; their bookkeeping is skipped when the policy lock is busy, which only
+ * makes the recency and frequency estimates a little coarser. Writes take the lock.
+ * <p>
+ * A {@link Listener} hears of every entry that comes or goes, evictions included, so an owner
+ * can index the entries and invalidate by key instead of scanning.
+ */
+public class TinyLfuCache<K, V> {
+
+    private static final Listener<Object, Object> NO_LISTENER = new Listener<>() {
+        @Override
+        public void added(Object key, Object value) {
+        }
+
+        @Override
+        public void removed(Object key, Object value) {
+        }
+    };
+
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashSet<K> window = new LinkedHashSet<>();
+    private final LinkedHashSet<K> probation = new LinkedHashSet<>();
+    private final LinkedHashSet<K> protectedSegment = new LinkedHashSet<>();
+    private final FrequencySketch sketch;
+    private final LongAdder evictions = new LongAdder();
+    private final int maxSize;
+    private final int windowMaxSize;
+    private final int protectedMaxSize;
+    private final Listener<? super K, ? super V> listener;
+
+    public TinyLfuCache(int maxSize) {
+        this(maxSize, NO_LISTENER);
+    }
+
+    public TinyLfuCache(int maxSize, Listener<? super K, ? super V> listener) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.windowMaxSize = Math.max(1, maxSize / 100);
+        this.protectedMaxSize = (maxSize - windowMaxSize) * 8 / 10;
+        this.sketch = new FrequencySketch(maxSize);
+        this.listener = listener;
+    }
+
+    public V get(K key) {
+        V value = entries.get(key);
+        if (lock.tryLock()) {
+            try {
+                sketch.increment(key);
+                if (value != null) {
+                    onHit(key);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        putIf(key, value, () -> true);
+    }
+
+    /**
+     * Stores the value if {@code condition}, evaluated under the lock every write takes, still
+     * holds; returns whether it was stored. Lets a caller drop a value computed from data that
+     * was invalidated while it was being computed.
+     */
+    public boolean putIf(K key, V value, BooleanSupplier condition) {
+        lock.lock();
+        try {
+            if (!condition.getAsBoolean()) {
+                return false;
+            }
+            V replaced = entries.put(key, value);
+            if (replaced != null) {
+                listener.removed(key, replaced);
+            }
+            listener.added(key, value);
+            if (replaced == null) {
+                window.add(key);
+                if (window.size() > windowMaxSize) {
+                    K candidate = first(window);
+                    window.remove(candidate);
+                    probation.add(candidate);
+                    evictIfFull(candidate);
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the entries under the keys {@code keys} returns. It is called under the lock every
+     * write takes, so it can read an index kept by the {@link Listener} while no entry comes or
+     * goes.
+     */
+    public void invalidateAll(Supplier<? extends Collection<? extends K>> keys) {
+        lock.lock();
+        try {
+            for (K key : keys.get()) {
+                remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.forEach(listener::removed);
+            entries.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Entries evicted for space since the cache was created; invalidations are not counted. */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void onHit(K key) {
+        if (window.remove(key)) {
+            window.add(key);
+        } else if (probation.remove(key)) {
+            protectedSegment.add(key);
+            if (protectedSegment.size() > protectedMaxSize) {
+                K demoted = first(protectedSegment);
+                protectedSegment.remove(demoted);
+                probation.add(demoted);
+            }
+        } else if (protectedSegment.remove(key)) {
+            protectedSegment.add(key);
+        }
+    }
+
+    /**
+     * The candidate just left the window for the tail of probation. If that overfills the cache,
+     * it competes with the least recently used main entry and the less frequent of the two goes.
+     */
+    private void evictIfFull(K candidate) {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        K victim = first(probation);
+        if (candidate.equals(victim)) {
+            victim = protectedSegment.isEmpty() ? null : first(protectedSegment);
+        }
+        K evicted = victim != null && sketch.frequency(candidate) > sketch.frequency(victim)
+                ? victim
+                : candidate;
+        remove(evicted);
+        evictions.increment();
+    }
+
+    private void remove(K key) {
+        V value = entries.remove(key);
+        if (value != null) {
+            unlink(key);
+            listener.removed(key, value);
+        }
+    }
+
+    private void unlink(K key) {
+        if (!window.remove(key) && !probation.remove(key)) {
+            protectedSegment.remove(key);
+        }
+    }
+
+    private static <K> K first(LinkedHashSet<K> segment) {
+        return segment.iterator().next();
+    }
+
+    /**
+     * Told of each entry as it is stored and as it leaves (invalidated, evicted or replaced),
+     * under the cache's lock; it must not call back into the cache.
+     */
+    public interface Listener<K, V> {
+
+        void added(K key, V value);
+
+        void removed(K key, V value);
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters, four per key. Once it has counted ten times the
+     * capacity, every counter is halved, so the estimates follow recent popularity.
+     */
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maxSize) {
+            // one long holds 16 counters
+            int length = Integer.highestOneBit(Math.max(16, maxSize) - 1) << 1;
+            table = new long[length];
+            sampleSize = 10 * maxSize;
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long slot = slot(hash, i);
+                int index = (int) (slot >>> 4);
+                int shift = (int) (slot & 15) << 2;
+                if (((table[index] >>> shift) & 15) < 15) {
+                    table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = 15;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long slot = slot(hash, i);
+                int shift = (int) (slot & 15) << 2;
+                frequency = Math.min(frequency, (int) ((table[(int) (slot >>> 4)] >>> shift) & 15));
+            }
+            return frequency;
+        }
+
+        /** Table index in the high bits, counter within the long in the low four. */
+        private long slot(int hash, int depth) {
+            long h = (hash + SEEDS[depth]) * SEEDS[depth];
+            h ^= h >>> 32;
+            return h & (((long) table.length << 4) - 1);
+        }
+
+        private static int spread(int hash) {
+            hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+            return (hash >>> 16) ^ hash;
+        }
+    }
+}
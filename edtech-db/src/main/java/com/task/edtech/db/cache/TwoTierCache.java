@@ -0,0 +1,127 @@
+package com.task.edtech.db.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Cache that stays correct with several nodes: a near cache in each node in front of a
+ * {@link SharedCache} all nodes read. A miss on a node is filled from the shared tier when
+ * another node has loaded the value, and from the loader otherwise. An invalidation drops the
+ * value from this node and the shared tier and tells the other nodes to drop their near copies.
+ * <p>
+ * Values go through the shared tier with Java serialization, so every node works on its own
+ * copies; only application and JDK value classes are accepted when reading them back. Entries
+ * live for at most {@code ttl} in each tier, which bounds staleness if an invalidation is ever
+ * lost. Keys are identified across nodes by {@code toString()}.
+ * <p>
+ * Call {@link #close} when the owner goes away, so the shared tier stops calling this cache.
+ */
+public class TwoTierCache<K, V extends Serializable> implements AutoCloseable {
+
+    private static final ObjectInputFilter VALUE_CLASSES = ObjectInputFilter.Config.createFilter(
+            "com.task.edtech.**;java.lang.*;java.math.*;java.time.*;java.util.UUID;!*");
+
+    private final String name;
+    private final Class<V> type;
+    private final Duration ttl;
+    private final SharedCache shared;
+    private final ExpiringCache<String, V> near;
+    private final Consumer<String> onRemoteInvalidation;
+
+    public TwoTierCache(String name, Class<V> type, int nearMaxSize, Duration ttl, SharedCache shared) {
+        this.name = name;
+        this.type = type;
+        this.ttl = ttl;
+        this.shared = shared;
+        this.near = new ExpiringCache<>(nearMaxSize);
+        this.onRemoteInvalidation = near::invalidate;
+        shared.subscribe(name, onRemoteInvalidation);
+    }
+
+    /**
+     * Returns the cached value, or loads it and keeps it in both tiers. Null results are not cached.
+     */
+    public V get(K key, Function<K, V> loader) {
+        String id = key.toString();
+        V value = near.get(id);
+        if (value != null) {
+            return value;
+        }
+        byte[] bytes = shared.get(name, id);
+        if (bytes != null) {
+            value = deserialize(bytes);
+        } else {
+            value = loader.apply(key);
+            if (value == null) {
+                return null;
+            }
+            shared.put(name, id, serialize(value), ttl);
+        }
+        near.put(id, value, Instant.now().plus(ttl));
+        return value;
+    }
+
+    /**
+     * Drops the value on this node now, and everywhere once the current transaction commits
+     * (right away outside one): until then other nodes could only reload the old value.
+     */
+    public void invalidate(K key) {
+        String id = key.toString();
+        near.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateEverywhere(id);
+                }
+            });
+        } else {
+            invalidateEverywhere(id);
+        }
+    }
+
+    @Override
+    public void close() {
+        shared.unsubscribe(name, onRemoteInvalidation);
+    }
+
+    private void invalidateEverywhere(String id) {
+        // this node may have reloaded the old value before the commit
+        near.invalidate(id);
+        shared.invalidate(name, id);
+    }
+
+    private static byte[] serialize(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private V deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            in.setObjectInputFilter(VALUE_CLASSES);
+            return type.cast(in.readObject());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot read cached " + name + " value", e);
+        }
+    }
+}
@@ -3,18 +3,13 @@ package com.task.edtech.db.converter;
 import com.task.edtech.db.dto.CourseDTO;
 import com.task.edtech.db.entity.Course;
 import com.task.edtech.db.entity.User;
-import com.task.edtech.db.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.Objects;
 
 @Component
-@RequiredArgsConstructor
 public class CourseConverter {
 
-    private final UserRepository userRepository;
-
     public CourseDTO toDto(Course entity) {
         if (entity == null) return null;
 
@@ -37,6 +32,10 @@ public class CourseConverter {
         return dto;
     }
 
+    /**
+     * The owner is set as an id-only {@link User}; {@code CourseService.addOrUpdate} resolves it,
+     * so converting never reads the users table.
+     */
     public Course toEntity(CourseDTO dto, Long userId) {
         if (dto == null) return null;
 
@@ -58,8 +57,7 @@ public class CourseConverter {
                 .build();
 
         if (userId != null) {
-            userRepository.findById(userId)
-                    .ifPresent(entity::setUser);
+            entity.setUser(User.builder().id(userId).build());
         }
 
         return entity;
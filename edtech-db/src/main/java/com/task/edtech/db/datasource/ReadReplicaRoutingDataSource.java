@@ -0,0 +1,123 @@
+package com.task.edtech.db.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Connections for read-only transactions: replicas in turn, or the primary for a user who has
+ * just written (see {@link ReadYourWritesTracker}) and for work run through {@link #readingPrimary}.
+ * <p>
+ * Use it through {@link #routing}: the lazy proxy only fetches a physical connection once the
+ * transaction has marked it read-only, so this routing sees {@code @Transactional(readOnly = true)}.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> READING_PRIMARY = new ThreadLocal<>();
+
+    private final ReadYourWritesTracker readYourWrites;
+    private final int replicaCount;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    private ReadReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                         ReadYourWritesTracker readYourWrites, MeterRegistry meterRegistry) {
+        this.readYourWrites = readYourWrites;
+        this.replicaCount = replicas.size();
+        this.replicaReads = readCounter(meterRegistry, "replica");
+        this.primaryReads = readCounter(meterRegistry, PRIMARY);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * The data source to hand to the EntityManagerFactory: read-write work, and any work outside
+     * a read-only transaction, goes to {@code primary}; read-only transactions to the replicas.
+     */
+    public static DataSource routing(DataSource primary, List<DataSource> replicas,
+                                     ReadYourWritesTracker readYourWrites, MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy proxy =
+                new LazyConnectionDataSourceProxy(new WriteTrackingDataSource(primary, readYourWrites));
+        proxy.setReadOnlyDataSource(new ReadReplicaRoutingDataSource(primary, replicas, readYourWrites, meterRegistry));
+        return proxy;
+    }
+
+    /**
+     * Runs {@code work} with the read-only transactions it starts on the primary, for reads whose
+     * result outlives the request (a shared cache entry, say) and must not come from a lagging
+     * replica. A transaction already running keeps the connection it has.
+     */
+    public static <T> T readingPrimary(Supplier<T> work) {
+        Boolean outer = READING_PRIMARY.get();
+        READING_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            READING_PRIMARY.set(outer);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (READING_PRIMARY.get() != null || readYourWrites.currentUserMustReadPrimary()) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return Math.floorMod(next.getAndIncrement(), replicaCount);
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("edtech.datasource.reads")
+                .description("Read-only transactions by the database they were routed to")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The primary as seen by everything but read-only transactions: a connection taken for a
+     * read-write transaction records a write by the current user.
+     */
+    private static class WriteTrackingDataSource extends DelegatingDataSource {
+
+        private final ReadYourWritesTracker readYourWrites;
+
+        WriteTrackingDataSource(DataSource primary, ReadYourWritesTracker readYourWrites) {
+            super(primary);
+            this.readYourWrites = readYourWrites;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            readYourWrites.recordWriteByCurrentUser();
+            return super.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            readYourWrites.recordWriteByCurrentUser();
+            return super.getConnection(username, password);
+        }
+    }
+}
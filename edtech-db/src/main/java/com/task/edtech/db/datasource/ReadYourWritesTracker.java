@@ -0,0 +1,95 @@
+package com.task.edtech.db.datasource;
+
+import com.task.edtech.db.cache.ExpiringCache;
+import com.task.edtech.db.cache.SharedCache;
+import com.task.edtech.db.security.AuthenticatedUser;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Remembers which users committed a write in the last {@code read-your-writes-window}, so their
+ * read-only work goes to the primary until the replicas have caught up with it. Users are known
+ * by the authenticated principal of the current thread; anonymous work always reads from replicas.
+ * <p>
+ * The writers are kept in the {@link SharedCache}, so a user's next request is pinned whichever
+ * node it lands on; each node also remembers its own writers, which spares the shared tier a
+ * lookup for them.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private static final String RECENT_WRITERS = "recent-writers";
+
+    private static final byte[] WROTE = {1};
+
+    @Autowired
+    private SharedCache sharedCache;
+
+    @Value("${app.datasource.replica.read-your-writes-window:5s}")
+    private Duration window;
+
+    @Value("${app.datasource.replica.read-your-writes-max-size:10000}")
+    private int maxSize;
+
+    private ExpiringCache<Long, Boolean> recentWriters;
+
+    @PostConstruct
+    void init() {
+        recentWriters = new ExpiringCache<>(maxSize);
+    }
+
+    /**
+     * Pins the user to the primary for the window, counted from now.
+     */
+    public void recordWrite(Long userId) {
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE, Instant.now().plus(window));
+            sharedCache.put(RECENT_WRITERS, userId.toString(), WROTE, window);
+        }
+    }
+
+    /**
+     * Records a write by the current user once the surrounding read-write transaction commits (a
+     * rolled-back write leaves nothing to read back). Work outside a transaction is not a write.
+     */
+    public void recordWriteByCurrentUser() {
+        Long userId = currentUserId();
+        if (userId == null
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite(userId);
+            }
+        });
+    }
+
+    /**
+     * Whether the current user wrote recently enough that a replica may not show it yet.
+     */
+    public boolean currentUserMustReadPrimary() {
+        Long userId = currentUserId();
+        return userId != null
+                && (recentWriters.get(userId) != null || sharedCache.get(RECENT_WRITERS, userId.toString()) != null);
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+}
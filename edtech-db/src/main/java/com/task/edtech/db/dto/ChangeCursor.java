@@ -0,0 +1,47 @@
+package com.task.edtech.db.dto;
+
+import com.task.edtech.db.exception.InvalidChangeCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * Position in the course change feed: the (txid, id) of the last change a consumer has seen.
+ * Travels to clients as an opaque URL-safe token.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeCursor {
+
+    /** Before every change. */
+    public static final ChangeCursor START = new ChangeCursor(0L, 0L);
+
+    private static final String SEPARATOR = "|";
+
+    private long txid;
+    private long id;
+
+    public String encode() {
+        String raw = txid + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChangeCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(Pattern.quote(SEPARATOR), -1);
+            if (parts.length != 2) {
+                throw new InvalidChangeCursorException("Invalid change cursor: " + token);
+            }
+            return new ChangeCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidChangeCursorException("Invalid change cursor: " + token, e);
+        }
+    }
+}
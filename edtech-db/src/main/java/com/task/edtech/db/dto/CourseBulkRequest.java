@@ -0,0 +1,21 @@
+package com.task.edtech.db.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseBulkRequest {
+
+    @NotEmpty(message = "courseIds is required")
+    @Size(max = 500, message = "At most 500 courseIds per request")
+    private List<@NotNull UUID> courseIds;
+}
@@ -0,0 +1,19 @@
+package com.task.edtech.db.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseBulkResponse {
+
+    /** Courses the action was applied to. */
+    private List<UUID> applied;
+    /** Requested ids that are not the caller's courses, or not courses at all. */
+    private List<UUID> notFound;
+}
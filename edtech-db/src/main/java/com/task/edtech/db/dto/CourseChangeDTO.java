@@ -0,0 +1,30 @@
+package com.task.edtech.db.dto;
+
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseChangeType;
+import com.task.edtech.db.enums.CourseMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of the course change feed. Carries what consumers need to decide whether to refetch
+ * the course, not the course itself.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseChangeDTO {
+
+    /** Pass as {@code since} to continue after this change. */
+    private String cursor;
+    private UUID courseId;
+    private CourseChangeType type;
+    private CourseCategory category;
+    private CourseMode mode;
+    private Boolean isPublished;
+    private LocalDateTime changedAt;
+}
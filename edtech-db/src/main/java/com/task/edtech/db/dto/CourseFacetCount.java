@@ -0,0 +1,21 @@
+package com.task.edtech.db.dto;
+
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of matching courses with one (category, mode, isFree) combination.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseFacetCount {
+
+    private CourseCategory category;
+    private CourseMode mode;
+    private Boolean isFree;
+    private long count;
+}
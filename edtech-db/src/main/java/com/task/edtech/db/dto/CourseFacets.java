@@ -0,0 +1,24 @@
+package com.task.edtech.db.dto;
+
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Course counts per category, mode and isFree for a search. Each facet is counted under every
+ * filter except its own, so a value's count is what the search would return with that value
+ * selected instead. Every value is present, with 0 when nothing matches.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseFacets {
+
+    private Map<CourseCategory, Long> category;
+    private Map<CourseMode, Long> mode;
+    private Map<Boolean, Long> isFree;
+}
@@ -0,0 +1,15 @@
+package com.task.edtech.db.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseImportError {
+
+    /** Zero-based position of the course in the request body. */
+    private int index;
+    private String message;
+}
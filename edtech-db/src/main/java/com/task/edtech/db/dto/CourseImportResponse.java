@@ -0,0 +1,18 @@
+package com.task.edtech.db.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseImportResponse {
+
+    private int created;
+    private int updated;
+    private int failed;
+    private List<CourseImportError> errors;
+}
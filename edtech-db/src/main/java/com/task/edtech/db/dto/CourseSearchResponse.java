@@ -0,0 +1,19 @@
+package com.task.edtech.db.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSearchResponse {
+
+    private List<CourseDTO> courses;
+    private String nextCursor;
+
+    /** Only when the search asked for facets. */
+    private CourseFacets facets;
+}
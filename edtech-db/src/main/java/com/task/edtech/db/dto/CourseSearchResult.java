@@ -0,0 +1,24 @@
+package com.task.edtech.db.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+/**
+ * A search page, its facets and the catalog version they belong to, read in one transaction. A
+ * page from the result cache was computed at an earlier version, and the lower one is reported,
+ * so the version never claims rows newer than the page holds.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSearchResult {
+
+    private Slice<CourseDTO> courses;
+
+    /** Only when the search asked for facets. */
+    private CourseFacets facets;
+
+    private long catalogVersion;
+}
@@ -0,0 +1,46 @@
+package com.task.edtech.db.dto;
+
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * {@link CourseDTO} without the description, for course lists; the TEXT column is not even read.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSummaryDTO {
+
+    private UUID id;
+
+    private String title;
+
+    private CourseCategory category;
+
+    private CourseMode mode;
+
+    private String address;
+
+    private String pinCode;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private String scheduleInfo;
+
+    private BigDecimal priceAmount;
+
+    private Boolean isFree;
+
+    private Integer capacity;
+
+    private Boolean isPublished;
+}
@@ -0,0 +1,43 @@
+package com.task.edtech.db.dto;
+
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Radius search result: the course plus its distance from the searched PIN code.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class NearbyCourseDTO extends CourseDTO {
+
+    private Double distanceKm;
+
+    /**
+     * Projection constructor for CourseRepository.searchCoursesNear; same order as CourseDTO's.
+     */
+    public NearbyCourseDTO(UUID id, String title, String description, CourseCategory category, CourseMode mode,
+                           String address, String pinCode, LocalDate startDate, LocalDate endDate,
+                           String scheduleInfo, BigDecimal priceAmount, Boolean isFree, Integer capacity,
+                           Boolean isPublished, Double distanceKm) {
+        super(id, title, description, category, mode, address, pinCode, startDate, endDate, scheduleInfo,
+                priceAmount, isFree, capacity, isPublished);
+        this.distanceKm = distanceKm;
+    }
+
+    public NearbyCourseDTO(CourseDTO course, double distanceKm) {
+        this(course.getId(), course.getTitle(), course.getDescription(), course.getCategory(), course.getMode(),
+                course.getAddress(), course.getPinCode(), course.getStartDate(), course.getEndDate(),
+                course.getScheduleInfo(), course.getPriceAmount(), course.getIsFree(), course.getCapacity(),
+                course.getIsPublished(), distanceKm);
+    }
+}
@@ -0,0 +1,65 @@
+package com.task.edtech.db.dto;
+
+import com.task.edtech.db.exception.InvalidSearchCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Keyset position in the search ordering: the (startDate, id) of the last course on a page, plus
+ * its distanceKm for radius searches or its relevance for text searches. Travels to clients as an
+ * opaque URL-safe token.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private LocalDate startDate;
+    private UUID id;
+    private Double distanceKm;
+    private Double relevance;
+
+    public SearchCursor(LocalDate startDate, UUID id) {
+        this(startDate, id, null, null);
+    }
+
+    public String encode() {
+        String raw = startDate + SEPARATOR + id;
+        // Double.toString round-trips exactly, so the next page seeks from the same distance or relevance
+        if (distanceKm != null || relevance != null) {
+            raw += SEPARATOR + (distanceKm != null ? distanceKm : "");
+        }
+        if (relevance != null) {
+            raw += SEPARATOR + relevance;
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(Pattern.quote(SEPARATOR), -1);
+            if (parts.length < 2 || parts.length > 4) {
+                throw new InvalidSearchCursorException("Invalid search cursor: " + token);
+            }
+            return new SearchCursor(
+                    LocalDate.parse(parts[0]),
+                    UUID.fromString(parts[1]),
+                    parts.length > 2 && !parts[2].isEmpty() ? Double.valueOf(parts[2]) : null,
+                    parts.length > 3 ? Double.valueOf(parts[3]) : null);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidSearchCursorException("Invalid search cursor: " + token, e);
+        }
+    }
+}
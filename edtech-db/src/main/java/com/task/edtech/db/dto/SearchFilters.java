@@ -19,5 +19,6 @@ public class SearchFilters {
     private Boolean isFree;
     private LocalDate startFrom;
     private LocalDate startTo;
+    private Double radiusKm;
+    private String text;
 }
-
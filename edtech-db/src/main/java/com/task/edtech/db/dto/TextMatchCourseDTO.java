@@ -0,0 +1,40 @@
+package com.task.edtech.db.dto;
+
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Text search result: the course, its relevance to the query (0 to 1, higher is better) and the
+ * title and description as HTML: the text escaped, and matching words wrapped in
+ * {@code <mark>...</mark>}.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class TextMatchCourseDTO extends CourseDTO {
+
+    private Double relevance;
+    private String titleHighlight;
+    private String descriptionHighlight;
+
+    public TextMatchCourseDTO(UUID id, String title, String description, CourseCategory category, CourseMode mode,
+                              String address, String pinCode, LocalDate startDate, LocalDate endDate,
+                              String scheduleInfo, BigDecimal priceAmount, Boolean isFree, Integer capacity,
+                              Boolean isPublished, Double relevance, String titleHighlight,
+                              String descriptionHighlight) {
+        super(id, title, description, category, mode, address, pinCode, startDate, endDate, scheduleInfo,
+                priceAmount, isFree, capacity, isPublished);
+        this.relevance = relevance;
+        this.titleHighlight = titleHighlight;
+        this.descriptionHighlight = descriptionHighlight;
+    }
+}
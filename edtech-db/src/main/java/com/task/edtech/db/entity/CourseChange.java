@@ -0,0 +1,59 @@
+package com.task.edtech.db.entity;
+
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseChangeType;
+import com.task.edtech.db.enums.CourseMode;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outbox row for one course write, inserted in the transaction of the write itself, so it
+ * commits (or rolls back) with it. The txid column, added by 06-course-changes.sql and filled
+ * by a column default, orders the change feed; it is not mapped.
+ */
+@Entity
+@Table(name = "course_changes")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Column(name = "course_id", nullable = false)
+    private UUID courseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 16)
+    private CourseChangeType changeType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private CourseCategory category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private CourseMode mode;
+
+    @Column(name = "is_published")
+    private Boolean isPublished;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
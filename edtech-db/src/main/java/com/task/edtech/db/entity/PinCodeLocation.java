@@ -0,0 +1,31 @@
+package com.task.edtech.db.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Approximate centre of a PIN code area. Loaded from the PIN code file at startup (see
+ * PinCodeDirectory) and joined to courses by pin_code for radius searches.
+ */
+@Entity
+@Table(name = "pin_code_locations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PinCodeLocation {
+
+    @Id
+    @Column(name = "pin_code", length = 6)
+    private String pinCode;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+}
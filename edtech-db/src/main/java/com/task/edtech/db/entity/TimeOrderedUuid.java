@@ -0,0 +1,33 @@
+package com.task.edtech.db.entity;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUID version 7 (RFC 9562): a 48-bit Unix millisecond timestamp, then 74 random bits. Ids made
+ * later sort later, also in PostgreSQL's uuid order, so new rows are appended at the right edge of
+ * the internal_id B-tree instead of splitting random leaf pages as version 4 ids do.
+ * <p>
+ * Within one millisecond the 12-bit rand_a field counts up (RFC 9562, method 1), so ids from one
+ * process are strictly increasing; a burst of more than 4096 ids in a millisecond borrows from the
+ * next one. The remaining 62 bits stay random, so ids are still not guessable from one another.
+ */
+public final class TimeOrderedUuid {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** Last (timestamp << 12 | counter) handed out. */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private TimeOrderedUuid() {
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long stamp = LAST.updateAndGet(last -> Math.max(now, last + 1));
+        long mostSignificantBits = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xfffL);
+        long leastSignificantBits = RANDOM.nextLong() & 0x3fffffffffffffffL | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
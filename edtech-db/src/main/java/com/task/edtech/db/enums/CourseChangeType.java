@@ -0,0 +1,8 @@
+package com.task.edtech.db.enums;
+
+public enum CourseChangeType {
+    SAVED,
+    PUBLISHED,
+    UNPUBLISHED,
+    DELETED
+}
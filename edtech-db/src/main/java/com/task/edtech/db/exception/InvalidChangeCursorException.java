@@ -0,0 +1,16 @@
+package com.task.edtech.db.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidChangeCursorException extends RuntimeException {
+
+    public InvalidChangeCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidChangeCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.task.edtech.db.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidSearchLocationException extends RuntimeException {
+
+    public InvalidSearchLocationException(String message) {
+        super(message);
+    }
+}
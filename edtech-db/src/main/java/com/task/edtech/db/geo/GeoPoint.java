@@ -0,0 +1,43 @@
+package com.task.edtech.db.geo;
+
+/**
+ * A position in degrees (WGS84).
+ */
+public record GeoPoint(double latitude, double longitude) {
+
+    /** Mean earth radius (6371 km) times two, as used by the haversine formula. */
+    public static final double EARTH_DIAMETER_KM = 12742.0;
+
+    /** Length of one degree of latitude, and of longitude at the equator. */
+    public static final double KM_PER_DEGREE = 111.195;
+
+    /**
+     * Great-circle (haversine) distance. CourseRepository.DISTANCE_KM computes the same formula
+     * in SQL, so both search engines rank by identical distances.
+     */
+    public double distanceKm(GeoPoint other) {
+        double halfDeltaLatitude = Math.toRadians(other.latitude - latitude) / 2;
+        double halfDeltaLongitude = Math.toRadians(other.longitude - longitude) / 2;
+        double a = Math.pow(Math.sin(halfDeltaLatitude), 2)
+                + Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(other.latitude))
+                * Math.pow(Math.sin(halfDeltaLongitude), 2);
+        return EARTH_DIAMETER_KM * Math.asin(Math.sqrt(a));
+    }
+
+    /**
+     * Latitude/longitude box containing every point within {@code radiusKm}, as
+     * {minLatitude, maxLatitude, minLongitude, maxLongitude}. Used to narrow candidates through an
+     * index before the exact distance is computed.
+     */
+    public double[] boundingBox(double radiusKm) {
+        double deltaLatitude = radiusKm / KM_PER_DEGREE;
+        double cosLatitude = Math.cos(Math.toRadians(Math.min(Math.abs(latitude) + deltaLatitude, 89.0)));
+        double deltaLongitude = Math.min(radiusKm / (KM_PER_DEGREE * cosLatitude), 180.0);
+        return new double[]{
+                latitude - deltaLatitude,
+                latitude + deltaLatitude,
+                longitude - deltaLongitude,
+                longitude + deltaLongitude
+        };
+    }
+}
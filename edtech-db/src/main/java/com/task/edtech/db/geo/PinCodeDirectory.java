@@ -0,0 +1,83 @@
+package com.task.edtech.db.geo;
+
+import com.task.edtech.db.entity.PinCodeLocation;
+import com.task.edtech.db.repository.PinCodeLocationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * PIN code to coordinate lookup, read from {@code app.geo.pin-code-file}: a CSV of
+ * {@code pin_code,latitude,longitude} with a header line. Lookups are served from memory; at
+ * startup the same rows are upserted into pin_code_locations for the database radius search.
+ */
+@Slf4j
+@Component
+public class PinCodeDirectory implements SmartInitializingSingleton {
+
+    @Value("${app.geo.pin-code-file:classpath:geo/pin-codes.csv}")
+    private Resource pinCodeFile;
+
+    @Autowired
+    private PinCodeLocationRepository pinCodeLocationRepository;
+
+    private Map<String, GeoPoint> locations = Map.of();
+
+    @PostConstruct
+    void load() {
+        Map<String, GeoPoint> loaded = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(pinCodeFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine(); // header
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] columns = line.split(",");
+                if (columns.length < 3) {
+                    throw new IllegalStateException("Invalid PIN code location at " + pinCodeFile + ":" + lineNumber);
+                }
+                loaded.put(columns[0].trim(), new GeoPoint(
+                        Double.parseDouble(columns[1].trim()),
+                        Double.parseDouble(columns[2].trim())));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read PIN code locations from " + pinCodeFile, e);
+        }
+        locations = Map.copyOf(loaded);
+        log.info("Loaded {} PIN code locations from {}", locations.size(), pinCodeFile);
+    }
+
+    /**
+     * Copies the file into pin_code_locations once the schema exists.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<PinCodeLocation> rows = new ArrayList<>(locations.size());
+        locations.forEach((pinCode, point) ->
+                rows.add(new PinCodeLocation(pinCode, point.latitude(), point.longitude())));
+        int changed = pinCodeLocationRepository.upsertAll(rows);
+        log.debug("Synchronized pin_code_locations: {} rows inserted or changed", changed);
+    }
+
+    public Optional<GeoPoint> locate(String pinCode) {
+        return pinCode == null ? Optional.empty() : Optional.ofNullable(locations.get(pinCode.trim()));
+    }
+}
@@ -0,0 +1,9 @@
+package com.task.edtech.db.repository;
+
+import com.task.edtech.db.entity.CourseChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CourseChangeRepository extends JpaRepository<CourseChange, Long>, CourseChangeRepositoryCustom {
+}
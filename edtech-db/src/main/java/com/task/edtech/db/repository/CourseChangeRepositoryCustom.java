@@ -0,0 +1,25 @@
+package com.task.edtech.db.repository;
+
+import com.task.edtech.db.dto.ChangeCursor;
+import com.task.edtech.db.dto.CourseChangeDTO;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface CourseChangeRepositoryCustom {
+
+    /**
+     * Up to {@code limit} changes after the cursor in (txid, id) order, read through a server-side
+     * cursor. Changes of transactions that may still be followed by an earlier-ordered commit are
+     * held back until they cannot (see 06-course-changes.sql). Must be consumed and closed inside
+     * a transaction.
+     */
+    Stream<CourseChangeDTO> streamCommittedAfter(@NotNull ChangeCursor after, int limit);
+
+    /**
+     * Deletes up to {@code limit} of the oldest changes made before {@code before}, found through
+     * idx_course_change_changed_at, and returns how many went.
+     */
+    int deleteChangedBefore(@NotNull LocalDateTime before, int limit);
+}
@@ -0,0 +1,71 @@
+package com.task.edtech.db.repository;
+
+import com.task.edtech.db.dto.ChangeCursor;
+import com.task.edtech.db.dto.CourseChangeDTO;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseChangeType;
+import com.task.edtech.db.enums.CourseMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class CourseChangeRepositoryCustomImpl implements CourseChangeRepositoryCustom {
+
+    // xid8 has no cast to or from bigint; text is the way in and out
+    private static final String COMMITTED_AFTER =
+            "SELECT CAST(CAST(txid AS text) AS bigint) AS txid, id, course_id, change_type, category, mode, "
+                    + "is_published, changed_at "
+                    + "FROM course_changes "
+                    + "WHERE txid < pg_snapshot_xmin(pg_current_snapshot()) AND "
+                    + "(txid, id) > (CAST(CAST(:afterTxid AS text) AS xid8), :afterId) "
+                    + "ORDER BY txid, id "
+                    + "LIMIT :limit";
+
+    private static final String DELETE_CHANGED_BEFORE =
+            "DELETE FROM course_changes WHERE id IN ("
+                    + "SELECT id FROM course_changes WHERE changed_at < :before ORDER BY changed_at LIMIT :limit)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<CourseChangeDTO> streamCommittedAfter(@NotNull ChangeCursor after, int limit) {
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(COMMITTED_AFTER).unwrap(NativeQuery.class);
+        query.setParameter("afterTxid", after.getTxid(), Long.class)
+                .setParameter("afterId", after.getId(), Long.class)
+                .setParameter("limit", limit, Integer.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 200);
+        query.addScalar("txid", Long.class)
+                .addScalar("id", Long.class)
+                .addScalar("course_id", UUID.class)
+                .addScalar("change_type", String.class)
+                .addScalar("category", String.class)
+                .addScalar("mode", String.class)
+                .addScalar("is_published", Boolean.class)
+                .addScalar("changed_at", LocalDateTime.class);
+
+        return query.getResultStream().map(row -> new CourseChangeDTO(
+                new ChangeCursor((Long) row[0], (Long) row[1]).encode(),
+                (UUID) row[2],
+                CourseChangeType.valueOf((String) row[3]),
+                row[4] != null ? CourseCategory.valueOf((String) row[4]) : null,
+                row[5] != null ? CourseMode.valueOf((String) row[5]) : null,
+                (Boolean) row[6],
+                (LocalDateTime) row[7]));
+    }
+
+    @Override
+    public int deleteChangedBefore(@NotNull LocalDateTime before, int limit) {
+        return entityManager.createNativeQuery(DELETE_CHANGED_BEFORE)
+                .setParameter("before", before)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+}
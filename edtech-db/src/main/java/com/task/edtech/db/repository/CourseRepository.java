@@ -1,23 +1,54 @@
 package com.task.edtech.db.repository;
 
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.dto.CourseSummaryDTO;
+import com.task.edtech.db.dto.NearbyCourseDTO;
 import com.task.edtech.db.entity.Course;
 import com.task.edtech.db.enums.CourseCategory;
 import com.task.edtech.db.enums.CourseMode;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Long> {
+public interface CourseRepository extends JpaRepository<Course, Long>, CourseRepositoryCustom {
+
+    // Read-only projections: rows go straight into DTOs, with no managed entity, owner proxy or
+    // dirty-checking snapshot. Arguments follow the field order of the DTO's all-args constructor.
+    String DTO_SELECT = "SELECT new com.task.edtech.db.dto.CourseDTO(c.internalId, c.title, c.description, "
+            + "c.category, c.mode, c.address, c.pinCode, c.startDate, c.endDate, c.scheduleInfo, c.priceAmount, "
+            + "c.isFree, c.capacity, c.isPublished) ";
+
+    String SUMMARY_SELECT = "SELECT new com.task.edtech.db.dto.CourseSummaryDTO(c.internalId, c.title, "
+            + "c.category, c.mode, c.address, c.pinCode, c.startDate, c.endDate, c.scheduleInfo, c.priceAmount, "
+            + "c.isFree, c.capacity, c.isPublished) ";
+
+    // Haversine distance in km between the course's PIN code centre p and (:latitude, :longitude);
+    // the same formula as GeoPoint.distanceKm. The constants are pi/360 and pi/180.
+    String DISTANCE_KM = "(12742.0 * asin(sqrt("
+            + "power(sin((p.latitude - :latitude) * 0.008726646259971648), 2) "
+            + "+ cos(p.latitude * 0.017453292519943295) * cos(:latitude * 0.017453292519943295) "
+            + "* power(sin((p.longitude - :longitude) * 0.008726646259971648), 2))))";
+
+    String NEARBY_SELECT = "SELECT new com.task.edtech.db.dto.NearbyCourseDTO(c.internalId, c.title, c.description, "
+            + "c.category, c.mode, c.address, c.pinCode, c.startDate, c.endDate, c.scheduleInfo, c.priceAmount, "
+            + "c.isFree, c.capacity, c.isPublished, " + DISTANCE_KM + ") ";
 
     @Query("SELECT c FROM Course c WHERE c.id = :id")
     Optional<Course> findById(@NotNull @Param("id") Long id);
@@ -25,32 +56,111 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     @Query("SELECT c FROM Course c WHERE c.internalId = :internalId")
     Optional<Course> findByInternalId(@NotNull @Param("internalId") UUID internalId);
 
+    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Course c "
+            + "WHERE c.internalId = :internalId OR c.id = :id")
+    boolean existsByInternalIdOrId(@Param("internalId") UUID internalId, @Param("id") Long id);
+
     @Query("SELECT c FROM Course c WHERE c.user.id = :userId AND c.title = :title")
     Optional<Course> findByUserIdAndTitle(
             @NotNull @Param("userId") Long userId,
             @NotNull @Param("title") String title);
 
+    @Query("SELECT c FROM Course c WHERE c.user.id = :userId AND c.title IN :titles")
+    List<Course> findAllByUserIdAndTitleIn(
+            @NotNull @Param("userId") Long userId,
+            @NotNull @Param("titles") Collection<String> titles);
+
+    @Query("SELECT c.updatedAt FROM Course c WHERE c.internalId = :internalId AND c.user.id = :userId")
+    Optional<LocalDateTime> findUpdatedAtByInternalIdAndUserId(
+            @NotNull @Param("internalId") UUID internalId,
+            @NotNull @Param("userId") Long userId);
+
+    /**
+     * Digest of every (internalId, updatedAt) of the user's courses, computed in the database;
+     * null when the user has none. Changes whenever a course is created, updated or deleted.
+     */
+    @Query(value = "SELECT md5(string_agg(CAST(internal_id AS text) || '@' || CAST(COALESCE(updated_at, created_at) AS text), ',' "
+            + "ORDER BY internal_id)) FROM courses WHERE user_id = :userId", nativeQuery = true)
+    String findCoursesDigestByUserId(@NotNull @Param("userId") Long userId);
+
     @Query("SELECT COUNT(c) FROM Course c WHERE c.user.id = :userId")
     long countByUserId(@Param("userId") Long userId);
 
     @Query("SELECT c FROM Course c WHERE c.user.id = :userId")
     List<Course> getAllByUserId(@NotNull @Param("userId") Long userId);
 
-    @Query("SELECT c FROM Course c WHERE " +
+    /**
+     * Same rows as {@link #getAllByUserId} as DTOs, read through a server-side cursor a
+     * fetch-size batch at a time. Must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query(DTO_SELECT + "FROM Course c WHERE c.user.id = :userId")
+    Stream<CourseDTO> streamAllByUserId(@NotNull @Param("userId") Long userId);
+
+    /**
+     * As {@link #streamAllByUserId} without the description.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query(SUMMARY_SELECT + "FROM Course c WHERE c.user.id = :userId")
+    Stream<CourseSummaryDTO> streamSummariesByUserId(@NotNull @Param("userId") Long userId);
+
+    @Query(DTO_SELECT + "FROM Course c WHERE c.isPublished = true")
+    List<CourseDTO> findAllPublished();
+
+    @Query(DTO_SELECT + "FROM Course c WHERE " +
             "c.isPublished = true AND " +
-            "c.startDate >= :startFrom AND " +
+            "c.startDate >= :afterStartDate AND " +
+            "(c.startDate > :afterStartDate OR c.internalId > :afterId) AND " +
             "(:pinCodePattern IS NULL OR (c.pinCode IS NOT NULL AND c.pinCode LIKE :pinCodePattern)) AND " +
             "(:category IS NULL OR c.category = :category) AND " +
             "(:mode IS NULL OR c.mode = :mode) AND " +
             "(:isFree IS NULL OR c.isFree = :isFree) AND " +
-            "(:startTo IS NULL OR c.startDate <= :startTo) " +
-            "ORDER BY c.startDate ASC")
-    List<Course> searchCourses(
+            "(CAST(:startTo AS LocalDate) IS NULL OR c.startDate <= :startTo) " +
+            "ORDER BY c.startDate ASC, c.internalId ASC")
+    Slice<CourseDTO> searchCourses(
             @Param("pinCodePattern") String pinCodePattern,
             @Param("category") CourseCategory category,
             @Param("mode") CourseMode mode,
             @Param("isFree") Boolean isFree,
-            @Param("startFrom") LocalDate startFrom,
-            @Param("startTo") LocalDate startTo);
-}
+            @Param("startTo") LocalDate startTo,
+            @NotNull @Param("afterStartDate") LocalDate afterStartDate,
+            @NotNull @Param("afterId") UUID afterId,
+            Pageable pageable);
 
+    /**
+     * Radius search. The bounding box is matched against the (latitude, longitude) index of
+     * pin_code_locations first, so only courses in PIN codes near the centre are joined and
+     * ranked; the exact distance then trims the box's corners.
+     */
+    @Query(NEARBY_SELECT + "FROM Course c JOIN PinCodeLocation p ON p.pinCode = c.pinCode WHERE " +
+            "c.isPublished = true AND " +
+            "c.mode = com.task.edtech.db.enums.CourseMode.IN_PERSON AND " +
+            "p.latitude BETWEEN :minLatitude AND :maxLatitude AND " +
+            "p.longitude BETWEEN :minLongitude AND :maxLongitude AND " +
+            DISTANCE_KM + " <= :radiusKm AND " +
+            "(" + DISTANCE_KM + " > :afterDistanceKm OR (" + DISTANCE_KM + " = :afterDistanceKm AND " +
+            "(c.startDate > :afterStartDate OR (c.startDate = :afterStartDate AND c.internalId > :afterId)))) AND " +
+            "c.startDate >= :startFrom AND " +
+            "(:category IS NULL OR c.category = :category) AND " +
+            "(:mode IS NULL OR c.mode = :mode) AND " +
+            "(:isFree IS NULL OR c.isFree = :isFree) AND " +
+            "(CAST(:startTo AS LocalDate) IS NULL OR c.startDate <= :startTo) " +
+            "ORDER BY " + DISTANCE_KM + " ASC, c.startDate ASC, c.internalId ASC")
+    Slice<NearbyCourseDTO> searchCoursesNear(
+            @NotNull @Param("latitude") Double latitude,
+            @NotNull @Param("longitude") Double longitude,
+            @NotNull @Param("minLatitude") Double minLatitude,
+            @NotNull @Param("maxLatitude") Double maxLatitude,
+            @NotNull @Param("minLongitude") Double minLongitude,
+            @NotNull @Param("maxLongitude") Double maxLongitude,
+            @NotNull @Param("radiusKm") Double radiusKm,
+            @Param("category") CourseCategory category,
+            @Param("mode") CourseMode mode,
+            @Param("isFree") Boolean isFree,
+            @NotNull @Param("startFrom") LocalDate startFrom,
+            @Param("startTo") LocalDate startTo,
+            @NotNull @Param("afterDistanceKm") Double afterDistanceKm,
+            @NotNull @Param("afterStartDate") LocalDate afterStartDate,
+            @NotNull @Param("afterId") UUID afterId,
+            Pageable pageable);
+}
@@ -0,0 +1,107 @@
+package com.task.edtech.db.repository;
+
+import com.task.edtech.db.dto.CourseFacetCount;
+import com.task.edtech.db.dto.TextMatchCourseDTO;
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import com.task.edtech.db.geo.GeoPoint;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Single-statement writes for {@link CourseRepository}. They run as native SQL, so they bypass
+ * bean validation and entity callbacks: callers validate the course and set internalId,
+ * createdAt and updatedAt first. Ownership is part of each statement's WHERE clause, so a
+ * write never needs the course (or its owner) loaded first.
+ */
+public interface CourseRepositoryCustom {
+
+    /**
+     * Updates the owner's course identified by internalId (or id when internalId is null) and
+     * returns it; empty when the user has no such course. internalId and createdAt are kept.
+     */
+    Optional<Course> updateOwnedCourse(@NotNull Course course);
+
+    /**
+     * As {@link #updateOwnedCourse}, by internalId, but is_published keeps its stored value.
+     */
+    Optional<Course> updateOwnedCourseDetails(@NotNull Course course);
+
+    /**
+     * Sets is_published on those of {@code internalIds} the user owns and returns them; ids of
+     * other users' courses or of no course are skipped. Only courses whose flag changes take
+     * {@code updatedAt}; those already in that state come back with their stored one.
+     */
+    List<Course> updatePublishedOwned(
+            @NotNull Long userId,
+            @NotNull Collection<UUID> internalIds,
+            boolean published,
+            @NotNull LocalDateTime updatedAt);
+
+    /**
+     * Deletes those of {@code internalIds} the user owns. Returns them as detached courses holding
+     * only internalId, category, mode and isPublished.
+     */
+    List<Course> deleteOwned(@NotNull Long userId, @NotNull Collection<UUID> internalIds);
+
+    /**
+     * Inserts the course, or updates the owner's course with the same title, atomically. On
+     * update the existing internalId and createdAt are kept.
+     */
+    Course upsertByUserIdAndTitle(@NotNull Course course);
+
+    /**
+     * The catalog version as of the current transaction's snapshot: the sum of the
+     * catalog_versions slots. Search ETags are built from it.
+     */
+    long getCatalogVersion();
+
+    /**
+     * Adds one to a catalog_versions slot picked by the current thread, inside the current
+     * transaction, so the version moves on exactly when the write commits.
+     */
+    void incrementCatalogVersion();
+
+    /**
+     * Published courses matching {@code text} (PostgreSQL websearch syntax: words, "phrases", or,
+     * -word) and the filters, ordered by (relevance descending, startDate, internalId) strictly
+     * after (afterRelevance, afterStartDate, afterId). Every match is ranked; only the
+     * {@code app.search.max-text-results} most relevant can be paged to, which bounds the rows kept
+     * for a query matching most of the catalog. Highlights are HTML and computed for the returned page only. Native SQL,
+     * as JPQL has no tsvector operators.
+     */
+    Slice<TextMatchCourseDTO> searchCoursesByText(
+            @NotNull String text,
+            String pinCodePattern,
+            CourseCategory category,
+            CourseMode mode,
+            Boolean isFree,
+            @NotNull LocalDate startFrom,
+            LocalDate startTo,
+            @NotNull Double afterRelevance,
+            @NotNull LocalDate afterStartDate,
+            @NotNull UUID afterId,
+            int pageSize);
+
+    /**
+     * Published courses starting in [startFrom, startTo] and matching the PIN code prefix, text and
+     * radius (each optional), counted per (category, mode, isFree) in one grouped query.
+     * Combinations without courses are left out. With {@code near} only in-person courses count.
+     * Native SQL, so that only the filters in use become predicates and joins.
+     */
+    List<CourseFacetCount> countPublishedByFacet(
+            String pinCodePattern,
+            String text,
+            GeoPoint near,
+            Double radiusKm,
+            @NotNull LocalDate startFrom,
+            LocalDate startTo);
+}
@@ -0,0 +1,430 @@
+package com.task.edtech.db.repository;
+
+import com.task.edtech.db.dto.CourseFacetCount;
+import com.task.edtech.db.dto.TextMatchCourseDTO;
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import com.task.edtech.db.geo.GeoPoint;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+public class CourseRepositoryCustomImpl implements CourseRepositoryCustom {
+
+    private static final String DETAIL_COLUMNS =
+            "title = :title, description = :description, category = :category, mode = :mode, "
+                    + "address = :address, pin_code = :pinCode, start_date = :startDate, end_date = :endDate, "
+                    + "schedule_info = :scheduleInfo, price_amount = :priceAmount, is_free = :isFree, "
+                    + "capacity = :capacity, updated_at = :updatedAt ";
+
+    private static final String UPDATE_COLUMNS = DETAIL_COLUMNS + ", is_published = :isPublished ";
+
+    private static final String UPDATE_BY_INTERNAL_ID =
+            "UPDATE courses SET " + UPDATE_COLUMNS
+                    + "WHERE internal_id = :internalId AND user_id = :userId RETURNING *";
+
+    private static final String UPDATE_BY_ID =
+            "UPDATE courses SET " + UPDATE_COLUMNS
+                    + "WHERE id = :id AND user_id = :userId RETURNING *";
+
+    private static final String UPDATE_DETAILS_BY_INTERNAL_ID =
+            "UPDATE courses SET " + DETAIL_COLUMNS
+                    + "WHERE internal_id = :internalId AND user_id = :userId RETURNING *";
+
+    private static final String UPDATE_PUBLISHED =
+            "UPDATE courses SET is_published = :published, "
+                    + "updated_at = CASE WHEN is_published = :published THEN updated_at ELSE :updatedAt END "
+                    + "WHERE internal_id IN (:internalIds) AND user_id = :userId RETURNING *";
+
+    private static final String DELETE_OWNED =
+            "DELETE FROM courses WHERE internal_id IN (:internalIds) AND user_id = :userId "
+                    + "RETURNING internal_id, category, mode, is_published";
+
+    // The conflict target is uk_course_user_title; internal_id and created_at keep their stored values
+    private static final String UPSERT_BY_USER_AND_TITLE =
+            "INSERT INTO courses (id, internal_id, user_id, title, description, category, mode, address, pin_code, "
+                    + "start_date, end_date, schedule_info, price_amount, is_free, capacity, is_published, "
+                    + "created_at, updated_at) "
+                    + "VALUES (:id, :internalId, :userId, :title, :description, :category, :mode, :address, :pinCode, "
+                    + ":startDate, :endDate, :scheduleInfo, :priceAmount, :isFree, :capacity, :isPublished, "
+                    + ":createdAt, :updatedAt) "
+                    + "ON CONFLICT (user_id, title) DO UPDATE SET "
+                    + "description = EXCLUDED.description, category = EXCLUDED.category, mode = EXCLUDED.mode, "
+                    + "address = EXCLUDED.address, pin_code = EXCLUDED.pin_code, start_date = EXCLUDED.start_date, "
+                    + "end_date = EXCLUDED.end_date, schedule_info = EXCLUDED.schedule_info, "
+                    + "price_amount = EXCLUDED.price_amount, is_free = EXCLUDED.is_free, capacity = EXCLUDED.capacity, "
+                    + "is_published = EXCLUDED.is_published, updated_at = EXCLUDED.updated_at "
+                    + "RETURNING *";
+
+    /** Rows of catalog_versions (see db/schema/03-catalog-version.sql). */
+    private static final int CATALOG_VERSION_SLOTS = 16;
+
+    // ts_headline marks matches with these; the text around them is HTML-escaped before they
+    // become <mark> tags, and removed from the course text first so only matches produce them
+    private static final char MATCH_START = '\u0002';
+    private static final char MATCH_END = '\u0003';
+
+    private static final String HIGHLIGHTED = "translate(%s, chr(2) || chr(3), '')";
+
+    private static final String TITLE_HIGHLIGHT =
+            "StartSel=\"" + MATCH_START + "\", StopSel=\"" + MATCH_END + "\", HighlightAll=true";
+
+    private static final String DESCRIPTION_HIGHLIGHT =
+            "StartSel=\"" + MATCH_START + "\", StopSel=\"" + MATCH_END + "\", "
+                    + "MaxFragments=2, MinWords=5, MaxWords=20, FragmentDelimiter=\" ... \"";
+
+    // Three levels: ranked finds the matches through the GIN index, ranks every one of them and
+    // keeps the most relevant; page applies the keyset and limit within those; the outer select
+    // runs the costly ts_headline on the page rows only
+    private static final String SEARCH_BY_TEXT =
+            "SELECT internal_id, title, description, category, mode, address, pin_code, start_date, end_date, "
+                    + "schedule_info, price_amount, is_free, capacity, is_published, relevance, "
+                    + "ts_headline('english', " + HIGHLIGHTED.formatted("title") + ", query, '"
+                    + TITLE_HIGHLIGHT + "') AS title_highlight, "
+                    + "ts_headline('english', " + HIGHLIGHTED.formatted("coalesce(description, '')") + ", query, '"
+                    + DESCRIPTION_HIGHLIGHT + "') AS description_highlight "
+                    + "FROM (SELECT * FROM ("
+                    + "SELECT c.*, q.query, CAST(ts_rank_cd(c.search_vector, q.query, 32) AS double precision) AS relevance "
+                    + "FROM courses c, websearch_to_tsquery('english', :text) AS q(query) WHERE "
+                    + "c.is_published = true AND "
+                    + "c.search_vector @@ q.query AND "
+                    + "c.start_date >= :startFrom AND "
+                    + "(:pinCodePattern IS NULL OR (c.pin_code IS NOT NULL AND c.pin_code LIKE :pinCodePattern)) AND "
+                    + "(:category IS NULL OR c.category = :category) AND "
+                    + "(:mode IS NULL OR c.mode = :mode) AND "
+                    + "(:isFree IS NULL OR c.is_free = :isFree) AND "
+                    + "(:startTo IS NULL OR c.start_date <= :startTo) "
+                    + "ORDER BY relevance DESC, c.start_date ASC, c.internal_id ASC "
+                    + "LIMIT :maxRanked"
+                    + ") ranked WHERE "
+                    + "relevance < :afterRelevance OR (relevance = :afterRelevance AND "
+                    + "(start_date > :afterStartDate OR (start_date = :afterStartDate AND internal_id > :afterId))) "
+                    + "ORDER BY relevance DESC, start_date ASC, internal_id ASC "
+                    + "LIMIT :limit) page "
+                    + "ORDER BY relevance DESC, start_date ASC, internal_id ASC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.search.max-text-results:1000}")
+    private int maxTextResults;
+
+    @Override
+    public Optional<Course> updateOwnedCourse(@NotNull Course course) {
+        NativeQuery<Course> query;
+        if (Objects.nonNull(course.getInternalId())) {
+            query = nativeQuery(UPDATE_BY_INTERNAL_ID)
+                    .setParameter("internalId", course.getInternalId(), UUID.class);
+        } else {
+            query = nativeQuery(UPDATE_BY_ID)
+                    .setParameter("id", course.getId(), Long.class);
+        }
+        query.setParameter("userId", course.getUser().getId(), Long.class)
+                .setParameter("isPublished", course.getIsPublished(), Boolean.class);
+        bindColumns(query, course);
+
+        List<Course> updated = query.getResultList();
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    public Optional<Course> updateOwnedCourseDetails(@NotNull Course course) {
+        NativeQuery<Course> query = nativeQuery(UPDATE_DETAILS_BY_INTERNAL_ID)
+                .setParameter("internalId", course.getInternalId(), UUID.class)
+                .setParameter("userId", course.getUser().getId(), Long.class);
+        bindColumns(query, course);
+
+        List<Course> updated = query.getResultList();
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    public List<Course> updatePublishedOwned(
+            @NotNull Long userId,
+            @NotNull Collection<UUID> internalIds,
+            boolean published,
+            @NotNull LocalDateTime updatedAt) {
+        if (internalIds.isEmpty()) {
+            return List.of();
+        }
+        return nativeQuery(UPDATE_PUBLISHED)
+                .setParameter("published", published, Boolean.class)
+                .setParameter("updatedAt", updatedAt, LocalDateTime.class)
+                .setParameterList("internalIds", internalIds, UUID.class)
+                .setParameter("userId", userId, Long.class)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Course> deleteOwned(@NotNull Long userId, @NotNull Collection<UUID> internalIds) {
+        if (internalIds.isEmpty()) {
+            return List.of();
+        }
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(DELETE_OWNED).unwrap(NativeQuery.class);
+        query.setParameterList("internalIds", internalIds, UUID.class)
+                .setParameter("userId", userId, Long.class)
+                .addScalar("internal_id", UUID.class)
+                .addScalar("category", String.class)
+                .addScalar("mode", String.class)
+                .addScalar("is_published", Boolean.class);
+
+        // not entities: the rows are gone, so nothing may enter the persistence context
+        List<Course> deleted = new ArrayList<>();
+        for (Object[] row : query.getResultList()) {
+            deleted.add(Course.builder()
+                    .internalId((UUID) row[0])
+                    .category(CourseCategory.valueOf((String) row[1]))
+                    .mode(CourseMode.valueOf((String) row[2]))
+                    .isPublished((Boolean) row[3])
+                    .build());
+        }
+        return deleted;
+    }
+
+    @Override
+    public Course upsertByUserIdAndTitle(@NotNull Course course) {
+        NativeQuery<Course> query = nativeQuery(UPSERT_BY_USER_AND_TITLE)
+                .setParameter("id", nextId(course), Long.class)
+                .setParameter("internalId", course.getInternalId(), UUID.class)
+                .setParameter("userId", course.getUser().getId(), Long.class)
+                .setParameter("createdAt", course.getCreatedAt(), LocalDateTime.class)
+                .setParameter("isPublished", course.getIsPublished(), Boolean.class);
+        bindColumns(query, course);
+        return query.getSingleResult();
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        Number version = (Number) entityManager.createNativeQuery("SELECT sum(version) FROM catalog_versions")
+                .getSingleResult();
+        return version.longValue();
+    }
+
+    @Override
+    public void incrementCatalogVersion() {
+        entityManager.createNativeQuery("UPDATE catalog_versions SET version = version + 1 WHERE slot = :slot")
+                .setParameter("slot", (short) (Thread.currentThread().threadId() % CATALOG_VERSION_SLOTS))
+                .executeUpdate();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Slice<TextMatchCourseDTO> searchCoursesByText(
+            @NotNull String text,
+            String pinCodePattern,
+            CourseCategory category,
+            CourseMode mode,
+            Boolean isFree,
+            @NotNull LocalDate startFrom,
+            LocalDate startTo,
+            @NotNull Double afterRelevance,
+            @NotNull LocalDate afterStartDate,
+            @NotNull UUID afterId,
+            int pageSize) {
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(SEARCH_BY_TEXT).unwrap(NativeQuery.class);
+        query.setParameter("text", text, String.class)
+                .setParameter("pinCodePattern", pinCodePattern, String.class)
+                .setParameter("category", category != null ? category.name() : null, String.class)
+                .setParameter("mode", mode != null ? mode.name() : null, String.class)
+                .setParameter("isFree", isFree, Boolean.class)
+                .setParameter("startFrom", startFrom, LocalDate.class)
+                .setParameter("startTo", startTo, LocalDate.class)
+                .setParameter("afterRelevance", afterRelevance, Double.class)
+                .setParameter("afterStartDate", afterStartDate, LocalDate.class)
+                .setParameter("afterId", afterId, UUID.class)
+                .setParameter("maxRanked", maxTextResults, Integer.class)
+                // one extra row tells whether there is a next page
+                .setParameter("limit", pageSize + 1, Integer.class);
+        query.addScalar("internal_id", UUID.class)
+                .addScalar("title", String.class)
+                .addScalar("description", String.class)
+                .addScalar("category", String.class)
+                .addScalar("mode", String.class)
+                .addScalar("address", String.class)
+                .addScalar("pin_code", String.class)
+                .addScalar("start_date", LocalDate.class)
+                .addScalar("end_date", LocalDate.class)
+                .addScalar("schedule_info", String.class)
+                .addScalar("price_amount", BigDecimal.class)
+                .addScalar("is_free", Boolean.class)
+                .addScalar("capacity", Integer.class)
+                .addScalar("is_published", Boolean.class)
+                .addScalar("relevance", Double.class)
+                .addScalar("title_highlight", String.class)
+                .addScalar("description_highlight", String.class);
+
+        List<TextMatchCourseDTO> courses = new ArrayList<>(pageSize + 1);
+        for (Object[] row : query.getResultList()) {
+            courses.add(new TextMatchCourseDTO(
+                    (UUID) row[0],
+                    (String) row[1],
+                    (String) row[2],
+                    CourseCategory.valueOf((String) row[3]),
+                    CourseMode.valueOf((String) row[4]),
+                    (String) row[5],
+                    (String) row[6],
+                    (LocalDate) row[7],
+                    (LocalDate) row[8],
+                    (String) row[9],
+                    (BigDecimal) row[10],
+                    (Boolean) row[11],
+                    (Integer) row[12],
+                    (Boolean) row[13],
+                    (Double) row[14],
+                    highlight((String) row[15]),
+                    highlight((String) row[16])));
+        }
+        boolean hasNext = courses.size() > pageSize;
+        if (hasNext) {
+            courses.remove(pageSize);
+        }
+        return new SliceImpl<>(courses, PageRequest.ofSize(pageSize), hasNext);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<CourseFacetCount> countPublishedByFacet(
+            String pinCodePattern,
+            String text,
+            GeoPoint near,
+            Double radiusKm,
+            @NotNull LocalDate startFrom,
+            LocalDate startTo) {
+        // Only the filters in use become predicates, so each combination gets its own plan
+        StringBuilder sql = new StringBuilder("SELECT c.category, c.mode, c.is_free, count(*) AS courses FROM courses c ");
+        if (near != null) {
+            sql.append("JOIN pin_code_locations p ON p.pin_code = c.pin_code ");
+        }
+        sql.append("WHERE c.is_published = true AND c.start_date >= :startFrom ");
+        if (startTo != null) {
+            sql.append("AND c.start_date <= :startTo ");
+        }
+        if (pinCodePattern != null) {
+            sql.append("AND c.pin_code LIKE :pinCodePattern ");
+        }
+        if (text != null) {
+            sql.append("AND c.search_vector @@ websearch_to_tsquery('english', :text) ");
+        }
+        if (near != null) {
+            sql.append("AND c.mode = 'IN_PERSON' ")
+                    .append("AND p.latitude BETWEEN :minLatitude AND :maxLatitude ")
+                    .append("AND p.longitude BETWEEN :minLongitude AND :maxLongitude ")
+                    .append("AND ").append(CourseRepository.DISTANCE_KM).append(" <= :radiusKm ");
+        }
+        sql.append("GROUP BY c.category, c.mode, c.is_free");
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql.toString()).unwrap(NativeQuery.class);
+        query.setParameter("startFrom", startFrom, LocalDate.class);
+        if (startTo != null) {
+            query.setParameter("startTo", startTo, LocalDate.class);
+        }
+        if (pinCodePattern != null) {
+            query.setParameter("pinCodePattern", pinCodePattern, String.class);
+        }
+        if (text != null) {
+            query.setParameter("text", text, String.class);
+        }
+        if (near != null) {
+            double[] box = near.boundingBox(radiusKm);
+            query.setParameter("minLatitude", box[0], Double.class)
+                    .setParameter("maxLatitude", box[1], Double.class)
+                    .setParameter("minLongitude", box[2], Double.class)
+                    .setParameter("maxLongitude", box[3], Double.class)
+                    .setParameter("latitude", near.latitude(), Double.class)
+                    .setParameter("longitude", near.longitude(), Double.class)
+                    .setParameter("radiusKm", radiusKm, Double.class);
+        }
+        query.addScalar("category", String.class)
+                .addScalar("mode", String.class)
+                .addScalar("is_free", Boolean.class)
+                .addScalar("courses", Long.class);
+
+        List<CourseFacetCount> counts = new ArrayList<>();
+        for (Object[] row : query.getResultList()) {
+            counts.add(new CourseFacetCount(
+                    CourseCategory.valueOf((String) row[0]),
+                    CourseMode.valueOf((String) row[1]),
+                    (Boolean) row[2],
+                    (Long) row[3]));
+        }
+        return counts;
+    }
+
+    /**
+     * ts_headline output as HTML: the course text escaped, and the match markers as
+     * {@code <mark>} tags.
+     */
+    private static String highlight(String headline) {
+        StringBuilder html = new StringBuilder(headline.length() + 32);
+        for (int i = 0; i < headline.length(); i++) {
+            char c = headline.charAt(i);
+            switch (c) {
+                case MATCH_START -> html.append("<mark>");
+                case MATCH_END -> html.append("</mark>");
+                case '&' -> html.append("&amp;");
+                case '<' -> html.append("&lt;");
+                case '>' -> html.append("&gt;");
+                case '"' -> html.append("&quot;");
+                case '\'' -> html.append("&#39;");
+                default -> html.append(c);
+            }
+        }
+        return html.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private NativeQuery<Course> nativeQuery(String sql) {
+        return entityManager.createNativeQuery(sql, Course.class).unwrap(NativeQuery.class);
+    }
+
+    /**
+     * Takes the id from Hibernate's pooled courses_seq optimizer, so ids never collide with the
+     * ones handed to persisted courses. An upsert that ends up updating just skips the id.
+     */
+    private Long nextId(Course course) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory()
+                .getMappingMetamodel()
+                .getEntityDescriptor(Course.class)
+                .getGenerator();
+        return (Long) generator.generate(session, course, null, EventType.INSERT);
+    }
+
+    // Every column but is_published, which not all statements set. Typed binding: pgjdbc cannot
+    // infer the column type of a null parameter on its own
+    private static void bindColumns(NativeQuery<Course> query, Course course) {
+        query.setParameter("title", course.getTitle(), String.class)
+                .setParameter("description", course.getDescription(), String.class)
+                .setParameter("category", course.getCategory().name(), String.class)
+                .setParameter("mode", course.getMode().name(), String.class)
+                .setParameter("address", course.getAddress(), String.class)
+                .setParameter("pinCode", course.getPinCode(), String.class)
+                .setParameter("startDate", course.getStartDate(), LocalDate.class)
+                .setParameter("endDate", course.getEndDate(), LocalDate.class)
+                .setParameter("scheduleInfo", course.getScheduleInfo(), String.class)
+                .setParameter("priceAmount", course.getPriceAmount(), BigDecimal.class)
+                .setParameter("isFree", course.getIsFree(), Boolean.class)
+                .setParameter("capacity", course.getCapacity(), Integer.class)
+                .setParameter("updatedAt", course.getUpdatedAt(), LocalDateTime.class);
+    }
+}
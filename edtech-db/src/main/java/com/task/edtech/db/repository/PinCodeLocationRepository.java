@@ -0,0 +1,10 @@
+package com.task.edtech.db.repository;
+
+import com.task.edtech.db.entity.PinCodeLocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PinCodeLocationRepository
+        extends JpaRepository<PinCodeLocation, String>, PinCodeLocationRepositoryCustom {
+}
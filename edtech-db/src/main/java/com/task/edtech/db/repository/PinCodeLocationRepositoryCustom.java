@@ -0,0 +1,15 @@
+package com.task.edtech.db.repository;
+
+import com.task.edtech.db.entity.PinCodeLocation;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Collection;
+
+public interface PinCodeLocationRepositoryCustom {
+
+    /**
+     * Inserts or updates every location in JDBC batches; rows whose coordinates are unchanged are
+     * left alone, so reloading the same file writes nothing. Returns the rows inserted or changed.
+     */
+    int upsertAll(@NotNull Collection<PinCodeLocation> locations);
+}
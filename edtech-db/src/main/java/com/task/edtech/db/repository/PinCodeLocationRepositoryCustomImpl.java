@@ -0,0 +1,60 @@
+package com.task.edtech.db.repository;
+
+import com.task.edtech.db.entity.PinCodeLocation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+
+public class PinCodeLocationRepositoryCustomImpl implements PinCodeLocationRepositoryCustom {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String UPSERT =
+            "INSERT INTO pin_code_locations (pin_code, latitude, longitude) VALUES (?, ?, ?) "
+                    + "ON CONFLICT (pin_code) DO UPDATE SET "
+                    + "latitude = EXCLUDED.latitude, longitude = EXCLUDED.longitude "
+                    + "WHERE (pin_code_locations.latitude, pin_code_locations.longitude) "
+                    + "IS DISTINCT FROM (EXCLUDED.latitude, EXCLUDED.longitude)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int upsertAll(@NotNull Collection<PinCodeLocation> locations) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            int changed = 0;
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT)) {
+                int pending = 0;
+                for (PinCodeLocation location : locations) {
+                    statement.setString(1, location.getPinCode());
+                    statement.setDouble(2, location.getLatitude());
+                    statement.setDouble(3, location.getLongitude());
+                    statement.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        changed += sum(statement.executeBatch());
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    changed += sum(statement.executeBatch());
+                }
+            }
+            return changed;
+        });
+    }
+
+    private static int sum(int[] counts) {
+        int sum = 0;
+        for (int count : counts) {
+            // reWriteBatchedInserts reports SUCCESS_NO_INFO (-2) for rewritten statements
+            sum += Math.max(count, 0);
+        }
+        return sum;
+    }
+}
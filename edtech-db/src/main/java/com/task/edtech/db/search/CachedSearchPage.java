@@ -0,0 +1,210 @@
+package com.task.edtech.db.search;
+
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.dto.NearbyCourseDTO;
+import com.task.edtech.db.dto.TextMatchCourseDTO;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One search page as {@link SearchResultCache} keeps it: the course ids as a flat long array
+ * (read into the cache's index without decoding anything) and the DTOs packed into a byte array, a
+ * fraction of the size of the object graph. Every hit decodes fresh DTOs, so callers may
+ * modify what they get.
+ */
+final class CachedSearchPage {
+
+    private static final byte PLAIN = 0;
+    private static final byte NEARBY = 1;
+    private static final byte TEXT_MATCH = 2;
+
+    /** Most and least significant bits of each course id, in page order. */
+    private final long[] ids;
+    private final byte[] courses;
+    private final boolean hasNext;
+    /** The catalog version of the snapshot the page was read from. */
+    private final long catalogVersion;
+    /** System.nanoTime() after which the page is not served. */
+    private final long expiresAt;
+
+    private CachedSearchPage(long[] ids, byte[] courses, boolean hasNext, long catalogVersion, long expiresAt) {
+        this.ids = ids;
+        this.courses = courses;
+        this.hasNext = hasNext;
+        this.catalogVersion = catalogVersion;
+        this.expiresAt = expiresAt;
+    }
+
+    static CachedSearchPage of(Slice<CourseDTO> page, long catalogVersion, long expiresAt) {
+        List<CourseDTO> content = page.getContent();
+        long[] ids = new long[content.size() * 2];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.size() * 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (int i = 0; i < content.size(); i++) {
+                CourseDTO course = content.get(i);
+                ids[2 * i] = course.getId().getMostSignificantBits();
+                ids[2 * i + 1] = course.getId().getLeastSignificantBits();
+                write(out, course);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new CachedSearchPage(ids, bytes.toByteArray(), page.hasNext(), catalogVersion, expiresAt);
+    }
+
+    List<UUID> courseIds() {
+        List<UUID> courseIds = new ArrayList<>(ids.length / 2);
+        for (int i = 0; i < ids.length; i += 2) {
+            courseIds.add(new UUID(ids[i], ids[i + 1]));
+        }
+        return courseIds;
+    }
+
+    long catalogVersion() {
+        return catalogVersion;
+    }
+
+    boolean isExpired(long now) {
+        return now - expiresAt > 0;
+    }
+
+    Slice<CourseDTO> toSlice(int pageSize) {
+        List<CourseDTO> content = new ArrayList<>(ids.length / 2);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(courses))) {
+            for (int i = 0; i < ids.length; i += 2) {
+                content.add(read(in, new UUID(ids[i], ids[i + 1])));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new SliceImpl<>(content, PageRequest.ofSize(pageSize), hasNext);
+    }
+
+    private static void write(DataOutputStream out, CourseDTO course) throws IOException {
+        out.writeByte(course instanceof NearbyCourseDTO ? NEARBY
+                : course instanceof TextMatchCourseDTO ? TEXT_MATCH
+                : PLAIN);
+        writeString(out, course.getTitle());
+        writeString(out, course.getDescription());
+        out.writeByte(course.getCategory() != null ? course.getCategory().ordinal() : -1);
+        out.writeByte(course.getMode() != null ? course.getMode().ordinal() : -1);
+        writeString(out, course.getAddress());
+        writeString(out, course.getPinCode());
+        writeDate(out, course.getStartDate());
+        writeDate(out, course.getEndDate());
+        writeString(out, course.getScheduleInfo());
+        out.writeBoolean(course.getPriceAmount() != null);
+        if (course.getPriceAmount() != null) {
+            byte[] unscaled = course.getPriceAmount().unscaledValue().toByteArray();
+            out.writeInt(course.getPriceAmount().scale());
+            out.writeByte(unscaled.length);
+            out.write(unscaled);
+        }
+        writeBoolean(out, course.getIsFree());
+        out.writeBoolean(course.getCapacity() != null);
+        if (course.getCapacity() != null) {
+            out.writeInt(course.getCapacity());
+        }
+        writeBoolean(out, course.getIsPublished());
+        if (course instanceof NearbyCourseDTO nearby) {
+            out.writeDouble(nearby.getDistanceKm());
+        } else if (course instanceof TextMatchCourseDTO match) {
+            out.writeDouble(match.getRelevance());
+            writeString(out, match.getTitleHighlight());
+            writeString(out, match.getDescriptionHighlight());
+        }
+    }
+
+    private static CourseDTO read(DataInputStream in, UUID id) throws IOException {
+        byte type = in.readByte();
+        String title = readString(in);
+        String description = readString(in);
+        byte category = in.readByte();
+        byte mode = in.readByte();
+        String address = readString(in);
+        String pinCode = readString(in);
+        LocalDate startDate = readDate(in);
+        LocalDate endDate = readDate(in);
+        String scheduleInfo = readString(in);
+        BigDecimal priceAmount = null;
+        if (in.readBoolean()) {
+            int scale = in.readInt();
+            byte[] unscaled = new byte[in.readUnsignedByte()];
+            in.readFully(unscaled);
+            priceAmount = new BigDecimal(new BigInteger(unscaled), scale);
+        }
+        Boolean isFree = readBoolean(in);
+        Integer capacity = in.readBoolean() ? in.readInt() : null;
+        Boolean isPublished = readBoolean(in);
+
+        CourseDTO course = new CourseDTO(id, title, description,
+                category >= 0 ? CourseCategory.values()[category] : null,
+                mode >= 0 ? CourseMode.values()[mode] : null,
+                address, pinCode, startDate, endDate, scheduleInfo, priceAmount, isFree, capacity, isPublished);
+        if (type == NEARBY) {
+            return new NearbyCourseDTO(course, in.readDouble());
+        }
+        if (type == TEXT_MATCH) {
+            return new TextMatchCourseDTO(id, title, description, course.getCategory(), course.getMode(),
+                    address, pinCode, startDate, endDate, scheduleInfo, priceAmount, isFree, capacity, isPublished,
+                    in.readDouble(), readString(in), readString(in));
+        }
+        return course;
+    }
+
+    // Length-prefixed UTF-8 (-1 for null); writeUTF would cap descriptions at 64 KB
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDate value) throws IOException {
+        out.writeLong(value != null ? value.toEpochDay() : Long.MIN_VALUE);
+    }
+
+    private static LocalDate readDate(DataInputStream in) throws IOException {
+        long epochDay = in.readLong();
+        return epochDay != Long.MIN_VALUE ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    private static void writeBoolean(DataOutputStream out, Boolean value) throws IOException {
+        out.writeByte(value == null ? -1 : value ? 1 : 0);
+    }
+
+    private static Boolean readBoolean(DataInputStream in) throws IOException {
+        byte value = in.readByte();
+        return value < 0 ? null : value == 1;
+    }
+}
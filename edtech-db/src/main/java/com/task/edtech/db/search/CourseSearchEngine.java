@@ -0,0 +1,36 @@
+package com.task.edtech.db.search;
+
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.dto.CourseFacets;
+import com.task.edtech.db.entity.Course;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Backend for published-course search. Selected with {@code app.search.engine}
+ * ({@code database} by default, or {@code memory}).
+ */
+public interface CourseSearchEngine {
+
+    Slice<CourseDTO> search(CourseSearchQuery query);
+
+    /**
+     * Category, mode and isFree counts over everything the query matches; the cursor and page
+     * size are ignored.
+     */
+    CourseFacets countFacets(CourseSearchQuery query);
+
+    /**
+     * Called after a course is created, updated, published or unpublished.
+     */
+    void index(Course course);
+
+    /**
+     * Called when a course is deleted.
+     */
+    void remove(Course course);
+
+    /**
+     * Reloads the engine's view of the catalog from the database.
+     */
+    void rebuild();
+}
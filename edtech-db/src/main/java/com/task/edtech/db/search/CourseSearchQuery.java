@@ -0,0 +1,45 @@
+package com.task.edtech.db.search;
+
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import com.task.edtech.db.geo.GeoPoint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Fully resolved search request: defaults applied, PIN code chosen, cursor clamped to startFrom.
+ * Matches published courses ordered by (startDate, internalId) strictly after (afterStartDate, afterId).
+ * <p>
+ * With {@code near} set it is a radius search instead: published in-person courses within
+ * {@code radiusKm} of {@code near}, starting on or after {@code startFrom}, ordered by
+ * (distanceKm, startDate, internalId) strictly after (afterDistanceKm, afterStartDate, afterId).
+ * {@code pinCodePrefix} is not used then.
+ * <p>
+ * With {@code text} set it is a full-text search: published courses matching the text (and the
+ * other filters), starting on or after {@code startFrom}, ordered by (relevance descending,
+ * startDate, internalId) strictly after (afterRelevance, afterStartDate, afterId).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSearchQuery {
+
+    private String pinCodePrefix;
+    private GeoPoint near;
+    private Double radiusKm;
+    private String text;
+    private CourseCategory category;
+    private CourseMode mode;
+    private Boolean isFree;
+    private LocalDate startFrom;
+    private LocalDate startTo;
+    private Double afterDistanceKm;
+    private Double afterRelevance;
+    private LocalDate afterStartDate;
+    private UUID afterId;
+    private int pageSize;
+}
@@ -0,0 +1,127 @@
+package com.task.edtech.db.search;
+
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.dto.CourseFacetCount;
+import com.task.edtech.db.dto.CourseFacets;
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.geo.GeoPoint;
+import com.task.edtech.db.repository.CourseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+/**
+ * Answers every search with a keyset query against PostgreSQL; keeps no state of its own.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseCourseSearchEngine implements CourseSearchEngine {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Override
+    public Slice<CourseDTO> search(CourseSearchQuery query) {
+        if (query.getNear() != null) {
+            return searchNear(query);
+        }
+        if (query.getText() != null) {
+            return searchText(courseRepository, query);
+        }
+
+        return courseRepository.searchCourses(
+                pinCodePattern(query),
+                query.getCategory(),
+                query.getMode(),
+                query.getIsFree(),
+                query.getStartTo(),
+                query.getAfterStartDate(),
+                query.getAfterId(),
+                PageRequest.ofSize(query.getPageSize()));
+    }
+
+    @Override
+    public CourseFacets countFacets(CourseSearchQuery query) {
+        return countFacets(courseRepository, query);
+    }
+
+    /**
+     * One grouped query over the matching courses. Shared with the in-memory engine for text
+     * searches.
+     */
+    static CourseFacets countFacets(CourseRepository courseRepository, CourseSearchQuery query) {
+        FacetCounter counter = new FacetCounter();
+        for (CourseFacetCount count : courseRepository.countPublishedByFacet(
+                pinCodePattern(query),
+                query.getText(),
+                query.getNear(),
+                query.getRadiusKm(),
+                query.getStartFrom(),
+                query.getStartTo())) {
+            counter.add(count.getCategory(), count.getMode(), count.getIsFree(), count.getCount());
+        }
+        return counter.toFacets(query);
+    }
+
+    private Slice<CourseDTO> searchNear(CourseSearchQuery query) {
+        GeoPoint near = query.getNear();
+        double[] box = near.boundingBox(query.getRadiusKm());
+
+        return courseRepository.searchCoursesNear(
+                near.latitude(),
+                near.longitude(),
+                box[0],
+                box[1],
+                box[2],
+                box[3],
+                query.getRadiusKm(),
+                query.getCategory(),
+                query.getMode(),
+                query.getIsFree(),
+                query.getStartFrom(),
+                query.getStartTo(),
+                query.getAfterDistanceKm(),
+                query.getAfterStartDate(),
+                query.getAfterId(),
+                PageRequest.ofSize(query.getPageSize())).map(CourseDTO.class::cast);
+    }
+
+    /**
+     * Full-text search through the tsvector index. Shared with the in-memory engine, which has no
+     * text index of its own.
+     */
+    static Slice<CourseDTO> searchText(CourseRepository courseRepository, CourseSearchQuery query) {
+        return courseRepository.searchCoursesByText(
+                query.getText(),
+                pinCodePattern(query),
+                query.getCategory(),
+                query.getMode(),
+                query.getIsFree(),
+                query.getStartFrom(),
+                query.getStartTo(),
+                query.getAfterRelevance(),
+                query.getAfterStartDate(),
+                query.getAfterId(),
+                query.getPageSize()).map(CourseDTO.class::cast);
+    }
+
+    private static String pinCodePattern(CourseSearchQuery query) {
+        return query.getPinCodePrefix() != null
+                ? query.getPinCodePrefix() + "%"
+                : null;
+    }
+
+    @Override
+    public void index(Course course) {
+    }
+
+    @Override
+    public void remove(Course course) {
+    }
+
+    @Override
+    public void rebuild() {
+    }
+}
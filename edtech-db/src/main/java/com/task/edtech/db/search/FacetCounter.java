@@ -0,0 +1,68 @@
+package com.task.edtech.db.search;
+
+import com.task.edtech.db.dto.CourseFacets;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts courses per (category, mode, isFree) combination, then folds the combinations into
+ * facets. A facet leaves out its own filter but applies the others, so all three come from one
+ * pass over the courses matching the rest of the query.
+ */
+final class FacetCounter {
+
+    private static final CourseCategory[] CATEGORIES = CourseCategory.values();
+    private static final CourseMode[] MODES = CourseMode.values();
+
+    private final long[] counts = new long[CATEGORIES.length * MODES.length * 2];
+
+    void add(CourseCategory category, CourseMode mode, Boolean isFree, long count) {
+        counts[index(category.ordinal(), mode.ordinal(), Boolean.TRUE.equals(isFree))] += count;
+    }
+
+    CourseFacets toFacets(CourseSearchQuery query) {
+        Map<CourseCategory, Long> byCategory = new EnumMap<>(CourseCategory.class);
+        Map<CourseMode, Long> byMode = new EnumMap<>(CourseMode.class);
+        Map<Boolean, Long> byIsFree = new LinkedHashMap<>();
+        for (CourseCategory category : CATEGORIES) {
+            byCategory.put(category, 0L);
+        }
+        for (CourseMode mode : MODES) {
+            byMode.put(mode, 0L);
+        }
+        byIsFree.put(true, 0L);
+        byIsFree.put(false, 0L);
+
+        for (CourseCategory category : CATEGORIES) {
+            boolean categoryMatches = query.getCategory() == null || query.getCategory() == category;
+            for (CourseMode mode : MODES) {
+                boolean modeMatches = query.getMode() == null || query.getMode() == mode;
+                for (boolean isFree : new boolean[]{true, false}) {
+                    long count = counts[index(category.ordinal(), mode.ordinal(), isFree)];
+                    if (count == 0) {
+                        continue;
+                    }
+                    boolean isFreeMatches = query.getIsFree() == null || query.getIsFree() == isFree;
+                    if (modeMatches && isFreeMatches) {
+                        byCategory.merge(category, count, Long::sum);
+                    }
+                    if (categoryMatches && isFreeMatches) {
+                        byMode.merge(mode, count, Long::sum);
+                    }
+                    if (categoryMatches && modeMatches) {
+                        byIsFree.merge(isFree, count, Long::sum);
+                    }
+                }
+            }
+        }
+        return new CourseFacets(byCategory, byMode, byIsFree);
+    }
+
+    private static int index(int category, int mode, boolean isFree) {
+        return (category * MODES.length + mode) * 2 + (isFree ? 1 : 0);
+    }
+}
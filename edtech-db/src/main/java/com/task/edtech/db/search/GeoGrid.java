@@ -0,0 +1,73 @@
+package com.task.edtech.db.search;
+
+import com.task.edtech.db.geo.GeoPoint;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Uniform latitude/longitude grid over course slots. A radius search visits only the cells that
+ * overlap the circle's bounding box, so its cost follows the courses nearby rather than the catalog.
+ */
+final class GeoGrid {
+
+    /** Cell edge in degrees, about 11 km of latitude; a 100 km radius spans roughly 20 x 20 cells. */
+    private static final double CELL_DEGREES = 0.1;
+
+    private static final int LONGITUDE_CELLS = (int) Math.round(360 / CELL_DEGREES);
+
+    private final Map<Long, BitSet> cells = new HashMap<>();
+
+    void add(GeoPoint point, int slot) {
+        cells.computeIfAbsent(cell(point.latitude(), point.longitude()), key -> new BitSet()).set(slot);
+    }
+
+    void remove(GeoPoint point, int slot) {
+        long key = cell(point.latitude(), point.longitude());
+        BitSet slots = cells.get(key);
+        if (slots != null) {
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Slots in every cell overlapping the box {minLatitude, maxLatitude, minLongitude, maxLongitude}.
+     * A superset of the slots inside it; callers still check the exact distance.
+     */
+    BitSet within(double[] box) {
+        BitSet slots = new BitSet();
+        int minRow = row(box[0]);
+        int maxRow = row(box[1]);
+        int minColumn = column(box[2]);
+        int maxColumn = column(box[3]);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                BitSet cell = cells.get(key(row, Math.floorMod(column, LONGITUDE_CELLS)));
+                if (cell != null) {
+                    slots.or(cell);
+                }
+            }
+        }
+        return slots;
+    }
+
+    private static long cell(double latitude, double longitude) {
+        return key(row(latitude), Math.floorMod(column(longitude), LONGITUDE_CELLS));
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.floor(latitude / CELL_DEGREES);
+    }
+
+    private static int column(double longitude) {
+        return (int) Math.floor(longitude / CELL_DEGREES);
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+}
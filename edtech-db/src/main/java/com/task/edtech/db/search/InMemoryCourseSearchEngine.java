@@ -0,0 +1,521 @@
+package com.task.edtech.db.search;
+
+import com.task.edtech.db.converter.CourseConverter;
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.dto.CourseFacets;
+import com.task.edtech.db.dto.NearbyCourseDTO;
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import com.task.edtech.db.geo.GeoPoint;
+import com.task.edtech.db.geo.PinCodeDirectory;
+import com.task.edtech.db.repository.CourseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps every published course in process and answers searches without touching the database,
+ * except text searches, which are passed to PostgreSQL's full-text index.
+ * <p>
+ * Each course occupies a slot. Category, mode and isFree are bitsets over slots, PIN codes are a
+ * prefix trie of slot bitsets, and an array of slots sorted by (startDate, internalId) gives the
+ * keyset order. A search intersects the bitsets and walks the sorted array from the cursor.
+ * In-person courses whose PIN code has a known location are also kept in a {@link GeoGrid}; a
+ * radius search ranks only the slots in the grid cells around the centre.
+ * <p>
+ * The index is loaded once at startup and then maintained from the service write paths after
+ * their transactions commit, all the changes of one transaction applied together, so a bulk import
+ * re-sorts the keyset order once rather than once per course.
+ * <p>
+ * Single node only: it sees the writes made through this process and nothing else, so with several
+ * instances, or writes that bypass CourseService, it serves stale results until the next restart.
+ * It is therefore off unless {@code app.search.engine=memory}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory")
+public class InMemoryCourseSearchEngine implements CourseSearchEngine, SmartInitializingSingleton {
+
+    /** Sorts before every real internalId. */
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseConverter courseConverter;
+
+    @Autowired
+    private PinCodeDirectory pinCodeDirectory;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private IndexState state = new IndexState();
+
+    /** Non-null while a rebuild is loading; batches that land meanwhile are replayed onto the new state. */
+    private List<Map<UUID, IndexedCourse>> rebuildJournal;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Override
+    public Slice<CourseDTO> search(CourseSearchQuery query) {
+        if (query.getNear() != null) {
+            return searchNear(query);
+        }
+        if (query.getText() != null) {
+            // no text index in memory; relevance ranking and highlights come from PostgreSQL
+            return DatabaseCourseSearchEngine.searchText(courseRepository, query);
+        }
+
+        int pageSize = query.getPageSize();
+        List<CourseDTO> results = new ArrayList<>(pageSize + 1);
+
+        lock.readLock().lock();
+        try {
+            IndexState index = state;
+            BitSet candidates = index.candidates(query);
+            if (candidates == null || !candidates.isEmpty()) {
+                for (int position = index.positionAfter(query.getAfterStartDate(), query.getAfterId());
+                     position < index.size && results.size() <= pageSize;
+                     position++) {
+                    int slot = index.dateOrder[position];
+                    CourseDTO course = index.courseBySlot.get(slot);
+                    if (query.getStartTo() != null && course.getStartDate().isAfter(query.getStartTo())) {
+                        break;
+                    }
+                    if (candidates == null || candidates.get(slot)) {
+                        results.add(course);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        boolean hasNext = results.size() > pageSize;
+        if (hasNext) {
+            results.remove(pageSize);
+        }
+        return new SliceImpl<>(results, PageRequest.ofSize(pageSize), hasNext);
+    }
+
+    private Slice<CourseDTO> searchNear(CourseSearchQuery query) {
+        int pageSize = query.getPageSize();
+        GeoPoint near = query.getNear();
+        double radiusKm = query.getRadiusKm();
+        List<NearbyCourseDTO> matches = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            IndexState index = state;
+            BitSet slots = index.geoGrid.within(near.boundingBox(radiusKm));
+            BitSet candidates = index.candidates(query);
+            if (candidates != null) {
+                slots.and(candidates);
+            }
+            for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                CourseDTO course = index.courseBySlot.get(slot);
+                if (course.getStartDate().isBefore(query.getStartFrom())
+                        || (query.getStartTo() != null && course.getStartDate().isAfter(query.getStartTo()))) {
+                    continue;
+                }
+                double distanceKm = near.distanceKm(index.locationBySlot.get(slot));
+                if (distanceKm > radiusKm) {
+                    continue;
+                }
+                int byDistance = Double.compare(distanceKm, query.getAfterDistanceKm());
+                if (byDistance > 0 || (byDistance == 0
+                        && compare(query.getAfterStartDate(), query.getAfterId(), course) < 0)) {
+                    matches.add(new NearbyCourseDTO(course, distanceKm));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(NEARBY_ORDER);
+        boolean hasNext = matches.size() > pageSize;
+        List<CourseDTO> results = new ArrayList<>(matches.subList(0, Math.min(pageSize, matches.size())));
+        return new SliceImpl<>(results, PageRequest.ofSize(pageSize), hasNext);
+    }
+
+    @Override
+    public CourseFacets countFacets(CourseSearchQuery query) {
+        if (query.getText() != null) {
+            return DatabaseCourseSearchEngine.countFacets(courseRepository, query);
+        }
+
+        FacetCounter counter = new FacetCounter();
+        lock.readLock().lock();
+        try {
+            IndexState index = state;
+            if (query.getNear() != null) {
+                GeoPoint near = query.getNear();
+                BitSet slots = index.geoGrid.within(near.boundingBox(query.getRadiusKm()));
+                for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                    CourseDTO course = index.courseBySlot.get(slot);
+                    if (!course.getStartDate().isBefore(query.getStartFrom())
+                            && (query.getStartTo() == null || !course.getStartDate().isAfter(query.getStartTo()))
+                            && near.distanceKm(index.locationBySlot.get(slot)) <= query.getRadiusKm()) {
+                        counter.add(course.getCategory(), course.getMode(), course.getIsFree(), 1);
+                    }
+                }
+            } else {
+                // category, mode and isFree are left to the counter; only the PIN code and dates filter here
+                BitSet pinCodes = query.getPinCodePrefix() != null
+                        ? index.pinCodes.withPrefix(query.getPinCodePrefix())
+                        : null;
+                for (int position = index.positionAfter(query.getStartFrom(), FIRST_ID);
+                     position < index.size;
+                     position++) {
+                    int slot = index.dateOrder[position];
+                    CourseDTO course = index.courseBySlot.get(slot);
+                    if (query.getStartTo() != null && course.getStartDate().isAfter(query.getStartTo())) {
+                        break;
+                    }
+                    if (pinCodes == null || pinCodes.get(slot)) {
+                        counter.add(course.getCategory(), course.getMode(), course.getIsFree(), 1);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counter.toFacets(query);
+    }
+
+    @Override
+    public void index(Course course) {
+        // a copy, so the index never keeps managed entities or lazy associations alive; indexed
+        // DTOs are shared between search results and must not be modified
+        CourseDTO snapshot = courseConverter.toDto(course);
+        afterCommit(snapshot.getId(), Boolean.TRUE.equals(snapshot.getIsPublished())
+                ? new IndexedCourse(snapshot, locate(snapshot))
+                : null);
+    }
+
+    @Override
+    public void remove(Course course) {
+        afterCommit(course.getInternalId(), null);
+    }
+
+    @Override
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildJournal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexState rebuilt = new IndexState();
+        try {
+            Map<UUID, IndexedCourse> courses = new LinkedHashMap<>();
+            for (CourseDTO course : courseRepository.findAllPublished()) {
+                courses.put(course.getId(), new IndexedCourse(course, locate(course)));
+            }
+            rebuilt.apply(courses);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                rebuildJournal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            rebuildJournal.forEach(rebuilt::apply);
+            rebuildJournal = null;
+            state = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Rebuilt in-memory course search index with {} published courses", rebuilt.size);
+    }
+
+    /**
+     * Location used for radius searches, or null when the course is not in person or its PIN code
+     * is not in the directory.
+     */
+    private GeoPoint locate(CourseDTO course) {
+        return course.getMode() == CourseMode.IN_PERSON
+                ? pinCodeDirectory.locate(course.getPinCode()).orElse(null)
+                : null;
+    }
+
+    /**
+     * Adds the change (a null course takes it out of the index) to the batch the current transaction
+     * applies when it commits; outside a transaction it is applied at once.
+     */
+    private void afterCommit(UUID internalId, IndexedCourse course) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(Collections.singletonMap(internalId, course));
+            return;
+        }
+        // a suspended outer transaction's batch is not in the list, so each transaction keeps its own
+        PendingChanges pending = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges changes && changes.engine() == this) {
+                pending = changes;
+                break;
+            }
+        }
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        // the last change to a course within the transaction is the one that counts
+        pending.changes.put(internalId, course);
+    }
+
+    private void apply(Map<UUID, IndexedCourse> changes) {
+        lock.writeLock().lock();
+        try {
+            state.apply(changes);
+            if (rebuildJournal != null) {
+                rebuildJournal.add(changes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** The index changes of one transaction, applied together after it commits. */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Map<UUID, IndexedCourse> changes = new LinkedHashMap<>();
+
+        InMemoryCourseSearchEngine engine() {
+            return InMemoryCourseSearchEngine.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            apply(changes);
+        }
+    }
+
+    /** A published course as indexed, with its radius-search location (null when it has none). */
+    private record IndexedCourse(CourseDTO course, GeoPoint location) {
+    }
+
+    /**
+     * PostgreSQL orders uuid values as unsigned bytes; match it so cursors mean the same in both engines.
+     */
+    private static int compare(LocalDate startDate, UUID id, CourseDTO course) {
+        int byDate = startDate.compareTo(course.getStartDate());
+        if (byDate != 0) {
+            return byDate;
+        }
+        int byHigh = Long.compareUnsigned(id.getMostSignificantBits(), course.getId().getMostSignificantBits());
+        return byHigh != 0
+                ? byHigh
+                : Long.compareUnsigned(id.getLeastSignificantBits(), course.getId().getLeastSignificantBits());
+    }
+
+    /** Radius search order: (distanceKm, startDate, internalId). */
+    private static final Comparator<NearbyCourseDTO> NEARBY_ORDER = (left, right) -> {
+        int byDistance = Double.compare(left.getDistanceKm(), right.getDistanceKm());
+        return byDistance != 0 ? byDistance : compare(left.getStartDate(), left.getId(), right);
+    };
+
+    private static final class IndexState {
+
+        private final Map<UUID, Integer> slotById = new HashMap<>();
+        private final List<CourseDTO> courseBySlot = new ArrayList<>();
+        private final List<GeoPoint> locationBySlot = new ArrayList<>();
+        private final Deque<Integer> freeSlots = new ArrayDeque<>();
+        private final BitSet[] byCategory = bitSets(CourseCategory.values().length);
+        private final BitSet[] byMode = bitSets(CourseMode.values().length);
+        private final BitSet free = new BitSet();
+        private final BitSet paid = new BitSet();
+        private final PinCodeTrie pinCodes = new PinCodeTrie();
+        private final GeoGrid geoGrid = new GeoGrid();
+
+        /** Slots sorted by (startDate, internalId); only the first {@code size} entries are live. */
+        private int[] dateOrder = new int[64];
+        private int size;
+
+        /**
+         * Applies a batch of changes, a null course removing it. The date order is compacted once
+         * and the new slots merged into it once, O(size + k log k) for k changes, instead of an
+         * arraycopy per course.
+         */
+        void apply(Map<UUID, IndexedCourse> changes) {
+            BitSet dropped = new BitSet();
+            for (UUID internalId : changes.keySet()) {
+                Integer slot = slotById.remove(internalId);
+                if (slot != null) {
+                    release(slot);
+                    dropped.set(slot);
+                }
+            }
+            if (!dropped.isEmpty()) {
+                int kept = 0;
+                for (int position = 0; position < size; position++) {
+                    if (!dropped.get(dateOrder[position])) {
+                        dateOrder[kept++] = dateOrder[position];
+                    }
+                }
+                size = kept;
+                // reusable only now that the date order no longer refers to them
+                dropped.stream().forEach(freeSlots::push);
+            }
+
+            List<Integer> added = new ArrayList<>();
+            for (IndexedCourse course : changes.values()) {
+                if (course != null) {
+                    added.add(occupy(course.course(), course.location()));
+                }
+            }
+            added.sort(this::compareSlots);
+            mergeIntoDateOrder(added);
+        }
+
+        private int occupy(CourseDTO course, GeoPoint location) {
+            int slot = freeSlots.isEmpty() ? courseBySlot.size() : freeSlots.pop();
+            if (slot == courseBySlot.size()) {
+                courseBySlot.add(course);
+                locationBySlot.add(location);
+            } else {
+                courseBySlot.set(slot, course);
+                locationBySlot.set(slot, location);
+            }
+            slotById.put(course.getId(), slot);
+
+            byCategory[course.getCategory().ordinal()].set(slot);
+            byMode[course.getMode().ordinal()].set(slot);
+            (Boolean.TRUE.equals(course.getIsFree()) ? free : paid).set(slot);
+            if (course.getPinCode() != null) {
+                pinCodes.add(course.getPinCode(), slot);
+            }
+            if (location != null) {
+                geoGrid.add(location, slot);
+            }
+            return slot;
+        }
+
+        /** Takes the slot out of every filter; the caller drops it from the date order. */
+        private void release(int slot) {
+            CourseDTO course = courseBySlot.get(slot);
+            byCategory[course.getCategory().ordinal()].clear(slot);
+            byMode[course.getMode().ordinal()].clear(slot);
+            free.clear(slot);
+            paid.clear(slot);
+            if (course.getPinCode() != null) {
+                pinCodes.remove(course.getPinCode(), slot);
+            }
+            GeoPoint location = locationBySlot.get(slot);
+            if (location != null) {
+                geoGrid.remove(location, slot);
+            }
+
+            courseBySlot.set(slot, null);
+            locationBySlot.set(slot, null);
+        }
+
+        /** Merges slots already sorted by (startDate, internalId) into the date order, from the back. */
+        private void mergeIntoDateOrder(List<Integer> slots) {
+            if (size + slots.size() > dateOrder.length) {
+                dateOrder = Arrays.copyOf(dateOrder, Math.max(dateOrder.length * 2, size + slots.size()));
+            }
+            int from = size - 1;
+            int to = size + slots.size() - 1;
+            for (int next = slots.size() - 1; next >= 0; next--) {
+                int slot = slots.get(next);
+                while (from >= 0 && compareSlots(dateOrder[from], slot) > 0) {
+                    dateOrder[to--] = dateOrder[from--];
+                }
+                dateOrder[to--] = slot;
+            }
+            size += slots.size();
+        }
+
+        private int compareSlots(int left, int right) {
+            CourseDTO course = courseBySlot.get(left);
+            return compare(course.getStartDate(), course.getId(), courseBySlot.get(right));
+        }
+
+        /**
+         * Intersection of the bitset filters, or null when the query has none.
+         */
+        BitSet candidates(CourseSearchQuery query) {
+            BitSet candidates = null;
+            if (query.getCategory() != null) {
+                candidates = intersect(candidates, byCategory[query.getCategory().ordinal()]);
+            }
+            if (query.getMode() != null) {
+                candidates = intersect(candidates, byMode[query.getMode().ordinal()]);
+            }
+            if (query.getIsFree() != null) {
+                candidates = intersect(candidates, query.getIsFree() ? free : paid);
+            }
+            if (query.getPinCodePrefix() != null) {
+                candidates = intersect(candidates, pinCodes.withPrefix(query.getPinCodePrefix()));
+            }
+            return candidates;
+        }
+
+        /**
+         * First position in {@link #dateOrder} whose course sorts strictly after (startDate, id).
+         */
+        int positionAfter(LocalDate startDate, UUID id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(startDate, id, courseBySlot.get(dateOrder[mid])) >= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static BitSet intersect(BitSet candidates, BitSet filter) {
+            if (candidates == null) {
+                return (BitSet) filter.clone();
+            }
+            candidates.and(filter);
+            return candidates;
+        }
+
+        private static BitSet[] bitSets(int count) {
+            BitSet[] bitSets = new BitSet[count];
+            for (int i = 0; i < count; i++) {
+                bitSets[i] = new BitSet();
+            }
+            return bitSets;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.task.edtech.db.search;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Prefix tree over PIN codes. Every node keeps the slots of all courses whose PIN code
+ * starts with the node's prefix, so a prefix lookup is a walk of prefix.length() nodes.
+ */
+final class PinCodeTrie {
+
+    private static final BitSet NONE = new BitSet();
+
+    private final Node root = new Node();
+
+    void add(String pinCode, int slot) {
+        Node node = root;
+        for (int i = 0; i < pinCode.length(); i++) {
+            node = node.children.computeIfAbsent(pinCode.charAt(i), c -> new Node());
+            node.slots.set(slot);
+        }
+    }
+
+    void remove(String pinCode, int slot) {
+        Node node = root;
+        for (int i = 0; i < pinCode.length() && node != null; i++) {
+            Node child = node.children.get(pinCode.charAt(i));
+            if (child == null) {
+                return;
+            }
+            child.slots.clear(slot);
+            if (child.slots.isEmpty()) {
+                node.children.remove(pinCode.charAt(i));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Slots of courses whose PIN code starts with the prefix. The returned set must not be modified.
+     */
+    BitSet withPrefix(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.children.get(prefix.charAt(i));
+            if (node == null) {
+                return NONE;
+            }
+        }
+        return node.slots;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final BitSet slots = new BitSet();
+    }
+}
@@ -0,0 +1,359 @@
+package com.task.edtech.db.search;
+
+import com.task.edtech.db.cache.SharedCache;
+import com.task.edtech.db.cache.TinyLfuCache;
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.enums.CourseCategory;
+import com.task.edtech.db.enums.CourseMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Search pages already computed, keyed by the resolved {@link CourseSearchQuery} (so two
+ * requests that differ only in defaults or PIN spelling share an entry), with W-TinyLFU
+ * eviction: the popular first pages stay while long tails of one-off filter combinations and
+ * deep cursors pass through.
+ * <p>
+ * A committed course write drops the pages that contain the course and the pages the course
+ * now matches, so a page is never served stale after the write's transaction commits on this
+ * node. Both are found through indexes of the cached pages, by the courses on them and by the
+ * category and mode they filter on, so a write touches only the pages it could change. The
+ * write's node then publishes what it wrote (id, category, mode, price, PIN code, start date,
+ * published) through the {@link SharedCache}, one message per transaction, and the other nodes
+ * drop their pages the same way. Searches read the replica, so a page filled from a lagging replica can hold the
+ * old row until {@code app.search.result-cache.ttl} runs out.
+ * <p>
+ * Off unless {@code app.search.result-cache.max-size} is positive.
+ */
+@Slf4j
+@Component
+public class SearchResultCache {
+
+    /** Channel of the course changes committed on other nodes, one message per transaction. */
+    private static final String CHANGES = "search-changes";
+
+    @Value("${app.search.result-cache.max-size:0}")
+    private int maxSize;
+
+    @Value("${app.search.result-cache.ttl:60s}")
+    private Duration ttl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SharedCache sharedCache;
+
+    private TinyLfuCache<CourseSearchQuery, CachedSearchPage> pages;
+
+    /**
+     * Keys of the cached pages each course is on. Kept by the listener of {@link #pages} and read
+     * only under its lock, as is the next index.
+     */
+    private final Map<UUID, Set<CourseSearchQuery>> pagesByCourse = new HashMap<>();
+
+    /** Keys of the cached pages by the category and mode they filter on, null where they do not. */
+    private final Map<Filter, Set<CourseSearchQuery>> pagesByFilter = new HashMap<>();
+
+    /**
+     * Moves on with every committed write. A search that saw it move while it ran may have read
+     * the old rows, so its page is not kept.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private Counter hits;
+
+    private Counter misses;
+
+    private final Consumer<String> onRemoteWrite = message -> dropPages(Change.decode(message));
+
+    @PostConstruct
+    void init() {
+        if (maxSize <= 0) {
+            log.info("Search result cache disabled");
+            return;
+        }
+        pages = new TinyLfuCache<>(maxSize, new TinyLfuCache.Listener<>() {
+            @Override
+            public void added(CourseSearchQuery query, CachedSearchPage page) {
+                page.courseIds().forEach(id -> index(pagesByCourse, id, query));
+                index(pagesByFilter, Filter.of(query), query);
+            }
+
+            @Override
+            public void removed(CourseSearchQuery query, CachedSearchPage page) {
+                page.courseIds().forEach(id -> unindex(pagesByCourse, id, query));
+                unindex(pagesByFilter, Filter.of(query), query);
+            }
+        });
+        hits = Counter.builder("edtech.search.cache.gets")
+                .description("Search pages asked of the result cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        misses = Counter.builder("edtech.search.cache.gets")
+                .description("Search pages asked of the result cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("edtech.search.cache.size", pages, TinyLfuCache::size)
+                .description("Search pages in the result cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("edtech.search.cache.evictions", pages, TinyLfuCache::evictionCount)
+                .description("Search pages evicted from the result cache for space")
+                .register(meterRegistry);
+        sharedCache.subscribe(CHANGES, onRemoteWrite);
+        log.info("Search result cache: {} pages, {} ttl", maxSize, ttl);
+    }
+
+    @PreDestroy
+    void close() {
+        if (pages != null) {
+            sharedCache.unsubscribe(CHANGES, onRemoteWrite);
+        }
+    }
+
+    /**
+     * The cached page for the query, or the result of {@code search}, kept for the next caller,
+     * with the catalog version it was read at. On a miss {@code catalogVersion} is read before
+     * {@code search} runs; both must read the same snapshot.
+     */
+    public VersionedSlice get(CourseSearchQuery query, LongSupplier catalogVersion,
+                              Supplier<Slice<CourseDTO>> search) {
+        if (pages == null) {
+            long version = catalogVersion.getAsLong();
+            return new VersionedSlice(search.get(), version);
+        }
+        long now = System.nanoTime();
+        CachedSearchPage cached = pages.get(query);
+        if (cached != null && !cached.isExpired(now)) {
+            hits.increment();
+            return new VersionedSlice(cached.toSlice(query.getPageSize()), cached.catalogVersion());
+        }
+        misses.increment();
+
+        long seen = invalidations.get();
+        long version = catalogVersion.getAsLong();
+        Slice<CourseDTO> results = search.get();
+        CachedSearchPage page = CachedSearchPage.of(results, version, now + ttl.toNanos());
+        pages.putIf(query, page, () -> invalidations.get() == seen);
+        return new VersionedSlice(results, version);
+    }
+
+    /**
+     * Drops the pages the courses are on or now belong on, once the current transaction commits
+     * (right away outside one), here and on the other nodes. Pass the courses as written.
+     */
+    public void invalidate(Collection<Course> courses) {
+        if (pages == null || courses.isEmpty()) {
+            return;
+        }
+        List<Change> changes = courses.stream()
+                .map(course -> new Change(course.getInternalId(), course.getCategory(), course.getMode(),
+                        course.getIsFree(), Boolean.TRUE.equals(course.getIsPublished()),
+                        course.getPinCode(), course.getStartDate()))
+                .toList();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow(changes);
+                }
+            });
+        } else {
+            invalidateNow(changes);
+        }
+    }
+
+    private void invalidateNow(List<Change> changes) {
+        dropPages(changes);
+        sharedCache.publish(CHANGES, Change.encode(changes));
+    }
+
+    private void dropPages(List<Change> changes) {
+        invalidations.incrementAndGet();
+        pages.invalidateAll(() -> pagesChangedBy(changes));
+    }
+
+    /** A search page and the catalog version of the snapshot it was read from. */
+    public record VersionedSlice(Slice<CourseDTO> courses, long catalogVersion) {
+    }
+
+    /** Called under the lock of {@link #pages}, where the indexes are current. */
+    private Set<CourseSearchQuery> pagesChangedBy(List<Change> changes) {
+        Set<CourseSearchQuery> changed = new HashSet<>();
+        for (Change change : changes) {
+            changed.addAll(pagesByCourse.getOrDefault(change.id(), Set.of()));
+            if (!change.published()) {
+                continue;
+            }
+            for (Filter filter : change.filters()) {
+                for (CourseSearchQuery query : pagesByFilter.getOrDefault(filter, Set.of())) {
+                    if (change.matches(query)) {
+                        changed.add(query);
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static <T> void index(Map<T, Set<CourseSearchQuery>> index, T key, CourseSearchQuery query) {
+        index.computeIfAbsent(key, k -> new HashSet<>()).add(query);
+    }
+
+    private static <T> void unindex(Map<T, Set<CourseSearchQuery>> index, T key, CourseSearchQuery query) {
+        Set<CourseSearchQuery> queries = index.get(key);
+        if (queries != null && queries.remove(query) && queries.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /** The category and mode a query filters on; either is null where it does not. */
+    private record Filter(CourseCategory category, CourseMode mode) {
+
+        static Filter of(CourseSearchQuery query) {
+            return new Filter(query.getCategory(), query.getMode());
+        }
+    }
+
+    /** What a write left behind, copied before the entities go on to be modified or detached. */
+    private record Change(UUID id, CourseCategory category, CourseMode mode, Boolean isFree, boolean published,
+                          String pinCode, LocalDate startDate) {
+
+        /** The filters of the queries that can return the course: its own, or none, on each. */
+        List<Filter> filters() {
+            return List.of(new Filter(category, mode), new Filter(category, null),
+                    new Filter(null, mode), new Filter(null, null));
+        }
+
+        /**
+         * Whether a search with this query could return the course now. Errs towards true: the
+         * text and the distance are not checked, nor where the cursor is.
+         */
+        boolean matches(CourseSearchQuery query) {
+            if (!published) {
+                return false;
+            }
+            if ((query.getCategory() != null && query.getCategory() != category)
+                    || (query.getMode() != null && query.getMode() != mode)
+                    || (query.getIsFree() != null && !query.getIsFree().equals(isFree))) {
+                return false;
+            }
+            if (query.getNear() != null) {
+                if (mode == CourseMode.ONLINE) {
+                    return false;
+                }
+            } else if (query.getPinCodePrefix() != null && !likeWildcards(query.getPinCodePrefix())
+                    && (pinCode == null || !pinCode.startsWith(query.getPinCodePrefix()))) {
+                return false;
+            }
+            if (startDate != null) {
+                if (query.getStartFrom() != null && startDate.isBefore(query.getStartFrom())) {
+                    return false;
+                }
+                if (query.getStartTo() != null && startDate.isAfter(query.getStartTo())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** The changes as one message: their fields packed as bytes, in Base64. */
+        static String encode(List<Change> changes) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(changes.size() * 64);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(changes.size());
+                for (Change change : changes) {
+                    out.writeLong(change.id().getMostSignificantBits());
+                    out.writeLong(change.id().getLeastSignificantBits());
+                    writeString(out, change.category() != null ? change.category().name() : null);
+                    writeString(out, change.mode() != null ? change.mode().name() : null);
+                    out.writeByte(change.isFree() == null ? -1 : change.isFree() ? 1 : 0);
+                    out.writeBoolean(change.published());
+                    writeString(out, change.pinCode());
+                    out.writeBoolean(change.startDate() != null);
+                    if (change.startDate() != null) {
+                        out.writeLong(change.startDate().toEpochDay());
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return Base64.getEncoder().encodeToString(bytes.toByteArray());
+        }
+
+        static List<Change> decode(String message) {
+            byte[] bytes = Base64.getDecoder().decode(message);
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                int size = in.readInt();
+                List<Change> changes = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    UUID id = new UUID(in.readLong(), in.readLong());
+                    String category = readString(in);
+                    String mode = readString(in);
+                    byte isFree = in.readByte();
+                    boolean published = in.readBoolean();
+                    String pinCode = readString(in);
+                    LocalDate startDate = in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+                    changes.add(new Change(id,
+                            category != null ? CourseCategory.valueOf(category) : null,
+                            mode != null ? CourseMode.valueOf(mode) : null,
+                            isFree < 0 ? null : isFree == 1,
+                            published, pinCode, startDate));
+                }
+                return changes;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static void writeString(DataOutputStream out, String value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeUTF(value);
+            }
+        }
+
+        private static String readString(DataInputStream in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+
+        /** The database engine matches the prefix with LIKE, so % and _ in it match anything. */
+        private static boolean likeWildcards(String pinCodePrefix) {
+            return pinCodePrefix.indexOf('%') >= 0 || pinCodePrefix.indexOf('_') >= 0;
+        }
+    }
+}
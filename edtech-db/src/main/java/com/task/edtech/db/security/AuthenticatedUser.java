@@ -0,0 +1,24 @@
+package com.task.edtech.db.security;
+
+import com.task.edtech.db.enums.UserType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal built from a verified JWT, so the current user's id, email and type are known
+ * without a database lookup. {@code userType} is null for tokens issued before it was a claim.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements AuthenticatedPrincipal {
+
+    private final Long id;
+    private final String email;
+    private final UserType userType;
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
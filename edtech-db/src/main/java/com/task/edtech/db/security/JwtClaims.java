@@ -0,0 +1,21 @@
+package com.task.edtech.db.security;
+
+import com.task.edtech.db.enums.UserType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token whose signature and expiry have already been verified.
+ */
+@Getter
+@AllArgsConstructor
+public class JwtClaims {
+
+    private final String email;
+    private final Long id;
+    private final UserType userType;
+    private final Instant expiresAt;
+
+}
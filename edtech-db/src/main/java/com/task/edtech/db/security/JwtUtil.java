@@ -1,14 +1,20 @@
 package com.task.edtech.db.security;
 
+import com.task.edtech.db.cache.ExpiringCache;
+import com.task.edtech.db.enums.UserType;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtUtil {
@@ -19,51 +25,82 @@ public class JwtUtil {
     @Value("${app.jwt.expiration:86400000}") // 24 hours in milliseconds
     private Long jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    @Value("${app.jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
+    private SecretKey signingKey;
+
+    private JwtParser parser;
+
+    /** Tokens that already passed signature verification, until they expire. */
+    private ExpiringCache<String, JwtClaims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        verifiedTokens = new ExpiringCache<>(claimsCacheSize);
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
-    public String generateToken(String email, Long id) {
+    public String generateToken(String email, Long id, UserType userType) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
         return Jwts.builder()
                 .subject(email)
                 .claim("id", id)
+                .claim("userType", userType != null ? userType.name() : null)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the token (signature, format, expiry) and returns its claims, or empty if it is
+     * not valid. A token is verified once; repeat calls are answered from the cache until it expires.
+     */
+    public Optional<JwtClaims> parseToken(String token) {
+        JwtClaims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        JwtClaims verified;
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            String userType = claims.get("userType", String.class);
+            Date expiration = claims.getExpiration();
+            verified = new JwtClaims(
+                    claims.getSubject(),
+                    claims.get("id", Long.class),
+                    userType != null ? UserType.valueOf(userType) : null,
+                    expiration != null ? expiration.toInstant() : null);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
         }
+
+        if (verified.getExpiresAt() != null) {
+            verifiedTokens.put(token, verified, verified.getExpiresAt());
+        }
+        return Optional.of(verified);
+    }
+
+    public boolean validateToken(String token) {
+        return parseToken(token).isPresent();
     }
 
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getSubject();
+        return parseToken(token)
+                .map(JwtClaims::getEmail)
+                .orElseThrow(() -> new JwtException("Invalid or expired JWT token"));
     }
 
     public Long getIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.get("id", Long.class);
+        return parseToken(token)
+                .map(JwtClaims::getId)
+                .orElseThrow(() -> new JwtException("Invalid or expired JWT token"));
     }
 }
-
@@ -0,0 +1,144 @@
+package com.task.edtech.db.security;
+
+import com.task.edtech.db.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bcrypt hashing and verification on a small dedicated pool, so a burst of logins uses at
+ * most {@code app.password.pool-size} cores instead of every request thread.
+ * <p>
+ * At most {@code app.password.queue-capacity} calls wait for a worker. Beyond that the call fails
+ * straight away with {@link PasswordHashingUnavailableException} (503), rather than queueing work
+ * whose caller would time out before it runs.
+ */
+@Slf4j
+@Component
+public class PasswordHashingService {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** 0 uses one worker per available processor. */
+    @Value("${app.password.pool-size:0}")
+    private int poolSize;
+
+    @Value("${app.password.queue-capacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer encodeTimer;
+
+    private Timer encodeWaitTimer;
+
+    private Timer matchTimer;
+
+    private Timer matchWaitTimer;
+
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password hashing pool: {} threads, {} queued calls at most", threads, queueCapacity);
+
+        encodeTimer = hashTimer("encode");
+        encodeWaitTimer = waitTimer("encode");
+        matchTimer = hashTimer("matches");
+        matchWaitTimer = waitTimer("matches");
+        rejected = Counter.builder("edtech.auth.password.rejected")
+                .description("Password calls refused because the hashing queue was full")
+                .register(meterRegistry);
+        Gauge.builder("edtech.auth.password.queue", executor, pool -> pool.getQueue().size())
+                .description("Password calls waiting for a hashing thread")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword), encodeWaitTimer, encodeTimer);
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword), matchWaitTimer, matchTimer);
+    }
+
+    private <T> T run(Callable<T> work, Timer waitTimer, Timer hashTimer) {
+        long submittedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingUnavailableException("Too many sign-in requests, please retry shortly", e);
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private Timer hashTimer(String operation) {
+        // bcrypt is deliberately slow; timed on its own so it is not mistaken for database time
+        return Timer.builder("edtech.auth.password")
+                .description("Password hashing and verification time, excluding queue wait")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Timer waitTimer(String operation) {
+        return Timer.builder("edtech.auth.password.wait")
+                .description("Time a password call waited for a hashing thread")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -4,6 +4,7 @@ import com.task.edtech.db.dto.AuthResponse;
 import com.task.edtech.db.dto.LoginRequest;
 import com.task.edtech.db.dto.SignupRequest;
 import com.task.edtech.db.entity.User;
+import com.task.edtech.db.security.AuthenticatedUser;
 
 public interface AuthService {
 
@@ -11,6 +12,11 @@ public interface AuthService {
 
     AuthResponse login(LoginRequest loginRequest);
 
+    /**
+     * The caller as carried by their token; no database access.
+     */
+    AuthenticatedUser getCurrentPrincipal();
+
     User getCurrentUser();
 
     Long getCurrentUserId();
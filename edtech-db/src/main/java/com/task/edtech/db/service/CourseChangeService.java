@@ -0,0 +1,36 @@
+package com.task.edtech.db.service;
+
+import com.task.edtech.db.dto.ChangeCursor;
+import com.task.edtech.db.dto.CourseChangeDTO;
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.enums.CourseChangeType;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+public interface CourseChangeService {
+
+    /**
+     * Adds one change per course to the outbox. Must run inside the transaction of the write, so
+     * the changes become visible exactly when the write does.
+     */
+    void record(@NotNull CourseChangeType type, @NotNull Collection<Course> courses);
+
+    /**
+     * Passes up to {@code limit} committed changes after {@code since} (from the start when null)
+     * to {@code action} in feed order, as they are read, in one read-only transaction.
+     */
+    void forEachChangeSince(
+            @Nullable ChangeCursor since,
+            @Nullable Integer limit,
+            @NotNull Consumer<CourseChangeDTO> action);
+
+    /**
+     * Deletes the changes made before {@code before}, a batch per transaction, and returns how
+     * many went. A consumer whose cursor is older than {@code before} misses them.
+     */
+    int deleteChangesBefore(@NotNull LocalDateTime before);
+}
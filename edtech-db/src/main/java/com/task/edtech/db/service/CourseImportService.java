@@ -0,0 +1,19 @@
+package com.task.edtech.db.service;
+
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.dto.CourseImportResponse;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Iterator;
+
+public interface CourseImportService {
+
+    /**
+     * Creates or updates a provider's courses, matched by title, in chunks of
+     * {@code app.import.chunk-size} with one transaction per chunk. Courses are read from the
+     * iterator as they are imported, so a streamed request body is never held in memory.
+     * Invalid courses are reported in the response and do not stop the import; chunks already
+     * imported stay committed if reading fails part way.
+     */
+    CourseImportResponse importCourses(@NotNull Long userId, @NotNull Iterator<CourseDTO> courses);
+}
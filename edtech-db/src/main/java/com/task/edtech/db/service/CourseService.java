@@ -1,5 +1,11 @@
 package com.task.edtech.db.service;
 
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.dto.CourseFacets;
+import com.task.edtech.db.dto.CourseImportResponse;
+import com.task.edtech.db.dto.CourseSearchResult;
+import com.task.edtech.db.dto.CourseSummaryDTO;
+import com.task.edtech.db.dto.SearchCursor;
 import com.task.edtech.db.dto.SearchFilters;
 import com.task.edtech.db.entity.Course;
 import com.task.edtech.db.enums.CourseCategory;
@@ -8,11 +14,15 @@ import jakarta.annotation.Nullable;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface CourseService {
 
@@ -28,15 +38,108 @@ public interface CourseService {
 
     Course addOrUpdate(@NotNull Course course);
 
+    /**
+     * Creates or updates one provider's courses in a single transaction. Existing courses are
+     * matched by title (not internalId) with one query for the whole list; inserts and updates are flushed in
+     * JDBC batches. Returns the created and updated counts.
+     */
+    CourseImportResponse importChunk(@NotNull Long userId, @NotNull List<Course> courses);
+
+    /**
+     * Updates the user's course with this internalId in one statement, keeping its published
+     * flag. Throws {@link com.task.edtech.db.exception.EntityNotFoundException} when the user
+     * has no such course.
+     */
+    Course updateCourse(@NotNull UUID courseInternalId, @NotNull Course course);
+
     void delete(@NotNull Course course);
 
-    Course publishCourse(@NotNull UUID courseInternalId);
+    /**
+     * Deletes the user's course in one statement; not found when the user has no such course.
+     */
+    void delete(@NotNull UUID courseInternalId, @NotNull Long userId);
+
+    /**
+     * Publishes the user's course in one statement; not found when the user has no such course.
+     */
+    Course publishCourse(@NotNull UUID courseInternalId, @NotNull Long userId);
+
+    /**
+     * Unpublishes the user's course in one statement; not found when the user has no such course.
+     */
+    Course unpublishCourse(@NotNull UUID courseInternalId, @NotNull Long userId);
 
-    Course unpublishCourse(@NotNull UUID courseInternalId);
+    /**
+     * Publishes those of the courses the user owns with a single UPDATE and returns their
+     * internalIds; other ids are skipped.
+     */
+    List<UUID> publishCourses(@NotNull Long userId, @NotNull Collection<UUID> courseInternalIds);
+
+    /**
+     * As {@link #publishCourses}, unpublishing.
+     */
+    List<UUID> unpublishCourses(@NotNull Long userId, @NotNull Collection<UUID> courseInternalIds);
+
+    /**
+     * Deletes those of the courses the user owns with a single DELETE and returns their
+     * internalIds; other ids are skipped.
+     */
+    List<UUID> deleteCourses(@NotNull Long userId, @NotNull Collection<UUID> courseInternalIds);
 
     List<Course> getAllByUserId(@NotNull Long userId);
 
-    List<Course> searchCourses(
+    /**
+     * Passes each of the user's courses to {@code action} as it is read, in one read-only
+     * transaction. Rows are selected straight into DTOs, so no entities enter the persistence
+     * context and memory does not grow with the count.
+     */
+    void forEachByUserId(@NotNull Long userId, @NotNull Consumer<CourseDTO> action);
+
+    /**
+     * Like {@link #forEachByUserId}, but without the description: the shape list views need.
+     */
+    void forEachSummaryByUserId(@NotNull Long userId, @NotNull Consumer<CourseSummaryDTO> action);
+
+    /**
+     * The course's updatedAt if it exists and belongs to the user, read without loading the course.
+     */
+    Optional<LocalDateTime> findUpdatedAt(@NotNull UUID courseInternalId, @NotNull Long userId);
+
+    /**
+     * Opaque value that changes whenever any of the user's courses is created, updated or deleted.
+     */
+    String getCoursesVersion(@NotNull Long userId);
+
+    /**
+     * Opaque value that changes with every committed course write, so search results computed
+     * under one version stay valid until it moves on. A replica reports the version of the writes
+     * it has replayed.
+     */
+    long getCatalogVersion();
+
+    Slice<CourseDTO> searchCourses(
+            @Nullable String pinCode,
+            @Nullable SearchFilters filters,
+            @Nullable SearchCursor after,
+            @Nullable Integer limit);
+
+    /**
+     * {@link #searchCourses}, plus {@link #countSearchFacets} when {@code facets}, and the catalog
+     * version, all read from one snapshot: the version is the ETag of exactly these results, even
+     * when reads are spread over replicas that lag by different amounts.
+     */
+    CourseSearchResult searchCatalog(
+            @Nullable String pinCode,
+            @Nullable SearchFilters filters,
+            @Nullable SearchCursor after,
+            @Nullable Integer limit,
+            boolean facets);
+
+    /**
+     * Category, mode and isFree counts for the search {@link #searchCourses} would run with the
+     * same pinCode and filters, computed in one pass instead of one search per value.
+     */
+    CourseFacets countSearchFacets(
             @Nullable String pinCode,
             @Nullable SearchFilters filters);
 }
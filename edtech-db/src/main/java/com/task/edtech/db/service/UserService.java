@@ -9,6 +9,12 @@ public interface UserService {
 
     User findById(@NotNull Long userId);
 
+    /**
+     * Like {@link #findById} but served from a short-lived cache. The returned entity is
+     * detached and has no password hash; use {@link #findById} to check or change one.
+     */
+    User getCachedById(@NotNull Long userId);
+
     User findByInternalId(@NotNull UUID internalId);
 
     User findByEmail(@NotNull String email);
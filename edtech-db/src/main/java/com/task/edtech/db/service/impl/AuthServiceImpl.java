@@ -1,26 +1,28 @@
 package com.task.edtech.db.service.impl;
 
 import com.task.edtech.db.converter.UserConverter;
+import com.task.edtech.db.datasource.ReadYourWritesTracker;
 import com.task.edtech.db.dto.AuthResponse;
 import com.task.edtech.db.dto.LoginRequest;
 import com.task.edtech.db.dto.UserDTO;
 import com.task.edtech.db.dto.SignupRequest;
 import com.task.edtech.db.entity.User;
-import com.task.edtech.db.repository.UserRepository;
+import com.task.edtech.db.security.AuthenticatedUser;
 import com.task.edtech.db.security.JwtUtil;
+import com.task.edtech.db.security.PasswordHashingService;
 import com.task.edtech.db.service.AuthService;
 import com.task.edtech.db.service.UserService;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
-
 @Service
 @Transactional
+@Timed(value = "edtech.auth.service", histogram = true)
 public class AuthServiceImpl
         implements AuthService {
 
@@ -31,12 +33,18 @@ public class AuthServiceImpl
     private UserConverter userConverter;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private ReadYourWritesTracker readYourWrites;
+
+    // signup and login run without a surrounding transaction so no connection is held while the
+    // password waits for and runs on the hashing pool; the user reads and writes have their own
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public AuthResponse signup(SignupRequest signupRequest) {
 
         if (userService.existsByEmail(signupRequest.getEmail())) {
@@ -45,14 +53,16 @@ public class AuthServiceImpl
 
         User user = User.builder()
                 .email(signupRequest.getEmail())
-                .passwordHash(passwordEncoder.encode(signupRequest.getPassword()))
+                .passwordHash(passwordHashingService.encode(signupRequest.getPassword()))
                 .name(signupRequest.getName())
                 .userType(signupRequest.getUserType())
                 .build();
 
         User dbUser = userService.addOrUpdate(user);
+        // the new user was anonymous while writing; their first requests must still find the row
+        readYourWrites.recordWrite(dbUser.getId());
 
-        String token = jwtUtil.generateToken(dbUser.getEmail(), dbUser.getId());
+        String token = jwtUtil.generateToken(dbUser.getEmail(), dbUser.getId(), dbUser.getUserType());
 
         UserDTO userDTO = userConverter.toDto(dbUser);
 
@@ -60,15 +70,16 @@ public class AuthServiceImpl
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public AuthResponse login(LoginRequest loginRequest) {
 
         User user = userService.findByEmail(loginRequest.getEmail());
 
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashingService.matches(loginRequest.getPassword(), user.getPasswordHash())) {
             throw new RuntimeException("Invalid email or password");
         }
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getId());
+        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getUserType());
 
         UserDTO userDTO = userConverter.toDto(user);
 
@@ -76,21 +87,33 @@ public class AuthServiceImpl
     }
 
     @Override
-    public User getCurrentUser() {
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public AuthenticatedUser getCurrentPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new RuntimeException("No authenticated user found");
         }
 
-        String email = authentication.getName();
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal;
+        }
+
+        // Authenticated by something other than our JWT filter: fall back to the users table
+        User user = userService.findByEmail(authentication.getName());
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getUserType());
+    }
 
-        return userService.findByEmail(email);
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public User getCurrentUser() {
+        return userService.getCachedById(getCurrentPrincipal().getId());
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Long getCurrentUserId() {
-        return getCurrentUser().getId();
+        return getCurrentPrincipal().getId();
     }
 
     @Override
@@ -99,4 +122,3 @@ public class AuthServiceImpl
         SecurityContextHolder.clearContext();
     }
 }
-
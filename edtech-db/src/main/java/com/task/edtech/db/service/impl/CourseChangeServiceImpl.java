@@ -0,0 +1,111 @@
+package com.task.edtech.db.service.impl;
+
+import com.task.edtech.db.dto.ChangeCursor;
+import com.task.edtech.db.dto.CourseChangeDTO;
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.CourseChange;
+import com.task.edtech.db.enums.CourseChangeType;
+import com.task.edtech.db.repository.CourseChangeRepository;
+import com.task.edtech.db.service.CourseChangeService;
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.NotNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class CourseChangeServiceImpl implements CourseChangeService {
+
+    @Value("${app.changes.default-limit:1000}")
+    private int defaultLimit;
+
+    @Value("${app.changes.max-limit:10000}")
+    private int maxLimit;
+
+    @Value("${app.changes.retention:30d}")
+    private Duration retention;
+
+    @Value("${app.changes.purge-batch-size:10000}")
+    private int purgeBatchSize;
+
+    @Autowired
+    private CourseChangeRepository courseChangeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(@NotNull CourseChangeType type, @NotNull Collection<Course> courses) {
+        if (courses.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // persisted with the pooled sequence, so the inserts go out in JDBC batches at flush
+        List<CourseChange> changes = courses.stream()
+                .map(course -> CourseChange.builder()
+                        .courseId(course.getInternalId())
+                        .changeType(type)
+                        .category(course.getCategory())
+                        .mode(course.getMode())
+                        .isPublished(type == CourseChangeType.DELETED ? null : course.getIsPublished())
+                        .changedAt(now)
+                        .build())
+                .toList();
+        courseChangeRepository.saveAll(changes);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachChangeSince(
+            @Nullable ChangeCursor since,
+            @Nullable Integer limit,
+            @NotNull Consumer<CourseChangeDTO> action) {
+        int pageSize = limit == null || limit < 1
+                ? defaultLimit
+                : Math.min(limit, maxLimit);
+        try (Stream<CourseChangeDTO> changes = courseChangeRepository.streamCommittedAfter(
+                since != null ? since : ChangeCursor.START, pageSize)) {
+            changes.forEach(action);
+        }
+    }
+
+    @Override
+    public int deleteChangesBefore(@NotNull LocalDateTime before) {
+        // short transactions, so the deletes never hold locks or a snapshot for long
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int deleted = 0;
+        int batch;
+        do {
+            batch = transaction.execute(status -> courseChangeRepository.deleteChangedBefore(before, purgeBatchSize));
+            deleted += batch;
+        } while (batch == purgeBatchSize);
+        return deleted;
+    }
+
+    /**
+     * Keeps the outbox to the last {@code app.changes.retention}.
+     */
+    @Scheduled(initialDelayString = "${app.changes.purge-interval:1h}",
+            fixedDelayString = "${app.changes.purge-interval:1h}")
+    public void purgeExpiredChanges() {
+        int deleted = deleteChangesBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Deleted {} course changes older than {}", deleted, retention);
+        }
+    }
+}
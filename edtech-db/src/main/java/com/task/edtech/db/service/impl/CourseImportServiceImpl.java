@@ -0,0 +1,149 @@
+package com.task.edtech.db.service.impl;
+
+import com.task.edtech.db.converter.CourseConverter;
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.dto.CourseImportError;
+import com.task.edtech.db.dto.CourseImportResponse;
+import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.User;
+import com.task.edtech.db.enums.UserType;
+import com.task.edtech.db.service.CourseImportService;
+import com.task.edtech.db.service.CourseService;
+import com.task.edtech.db.service.UserService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.NotNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class CourseImportServiceImpl implements CourseImportService {
+
+    /** Keeps the response bounded for a body full of bad rows; {@code failed} still counts them all. */
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseConverter courseConverter;
+
+    @Autowired
+    private Validator validator;
+
+    @Override
+    public CourseImportResponse importCourses(@NotNull Long userId, @NotNull Iterator<CourseDTO> courses) {
+        User user = userService.getCachedById(userId);
+        if (!Objects.equals(user.getUserType(), UserType.PROVIDER)) {
+            throw new RuntimeException("Only provider could create courses");
+        }
+
+        CourseImportResponse result = new CourseImportResponse(0, 0, 0, new ArrayList<>());
+        List<CourseDTO> chunk = new ArrayList<>(chunkSize);
+        List<Integer> positions = new ArrayList<>(chunkSize);
+
+        for (int index = 0; ; index++) {
+            CourseDTO dto;
+            try {
+                if (!courses.hasNext()) {
+                    break;
+                }
+                dto = courses.next();
+            } catch (RuntimeException e) {
+                // malformed input; the reader cannot resynchronise, so stop here
+                fail(result, index, "Unreadable course: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                break;
+            }
+
+            String violations = dto == null ? "Course is required" : validate(dto);
+            if (violations != null) {
+                fail(result, index, violations);
+                continue;
+            }
+
+            chunk.add(dto);
+            positions.add(index);
+            if (chunk.size() == chunkSize) {
+                importChunk(userId, chunk, positions, result);
+                chunk.clear();
+                positions.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(userId, chunk, positions, result);
+        }
+
+        log.info("Imported courses for user {}: {} created, {} updated, {} failed",
+                userId, result.getCreated(), result.getUpdated(), result.getFailed());
+        return result;
+    }
+
+    /**
+     * Imports one chunk; if it is rejected, retries its courses one at a time so that only the
+     * offending ones are reported. Entities are rebuilt from the DTOs on every attempt, since a
+     * rolled-back persist leaves ids behind on them.
+     */
+    private void importChunk(Long userId, List<CourseDTO> chunk, List<Integer> positions, CourseImportResponse result) {
+        List<Course> courses = chunk.stream()
+                .map(dto -> courseConverter.toEntity(dto, userId))
+                .collect(Collectors.toList());
+        try {
+            CourseImportResponse imported = courseService.importChunk(userId, courses);
+            result.setCreated(result.getCreated() + imported.getCreated());
+            result.setUpdated(result.getUpdated() + imported.getUpdated());
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                fail(result, positions.get(0), message(e));
+                return;
+            }
+            log.warn("Course import chunk of {} failed, retrying one course at a time: {}", chunk.size(), message(e));
+            for (int i = 0; i < chunk.size(); i++) {
+                importChunk(userId, List.of(chunk.get(i)), List.of(positions.get(i)), result);
+            }
+        }
+    }
+
+    private String validate(CourseDTO dto) {
+        Set<ConstraintViolation<CourseDTO>> violations = validator.validate(dto);
+        return violations.isEmpty() ? null : join(violations);
+    }
+
+    private static String message(RuntimeException e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return cause instanceof ConstraintViolationException violation
+                ? join(violation.getConstraintViolations())
+                : cause.getMessage();
+    }
+
+    private static String join(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static void fail(CourseImportResponse result, int index, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new CourseImportError(index, message));
+        }
+    }
+}
@@ -1,35 +1,143 @@
 package com.task.edtech.db.service.impl;
 
+import com.task.edtech.db.dto.CourseDTO;
+import com.task.edtech.db.dto.CourseFacets;
+import com.task.edtech.db.dto.CourseImportResponse;
+import com.task.edtech.db.dto.CourseSearchResult;
+import com.task.edtech.db.dto.CourseSummaryDTO;
+import com.task.edtech.db.dto.SearchCursor;
 import com.task.edtech.db.dto.SearchFilters;
 import com.task.edtech.db.entity.Course;
+import com.task.edtech.db.entity.TimeOrderedUuid;
 import com.task.edtech.db.entity.User;
+import com.task.edtech.db.enums.CourseChangeType;
+import com.task.edtech.db.enums.UserType;
 import com.task.edtech.db.exception.EntityNotFoundException;
+import com.task.edtech.db.exception.InvalidSearchLocationException;
+import com.task.edtech.db.exception.InvalidSearchQueryException;
+import com.task.edtech.db.geo.GeoPoint;
+import com.task.edtech.db.geo.PinCodeDirectory;
 import com.task.edtech.db.repository.CourseRepository;
+import com.task.edtech.db.search.CourseSearchEngine;
+import com.task.edtech.db.search.CourseSearchQuery;
+import com.task.edtech.db.search.SearchResultCache;
+import com.task.edtech.db.service.CourseChangeService;
 import com.task.edtech.db.service.CourseService;
 import com.task.edtech.db.service.UserService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
+@Timed(value = "edtech.course.service", histogram = true)
 public class CourseServiceImpl implements CourseService {
 
+    /** Sorts before every real internalId, so the first page seeks from (startFrom, FIRST_ID). */
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    /** Same answer for a course that does not exist and one owned by someone else. */
+    private static final String NOT_OWNED_MESSAGE = "Course not found or access denied";
+
+    @Value("${app.search.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.search.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.search.max-radius-km:100}")
+    private double maxRadiusKm;
+
+    @Value("${app.search.max-text-length:200}")
+    private int maxTextLength;
+
+    @Value("${app.search.engine:database}")
+    private String searchEngineName;
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private CourseSearchEngine courseSearchEngine;
+
+    @Autowired
+    private CourseChangeService courseChangeService;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private PinCodeDirectory pinCodeDirectory;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer searchTimer;
+
+    private DistributionSummary searchResults;
+
+    private Timer facetsTimer;
+
+    @PostConstruct
+    void initMetrics() {
+        // For the database engine this is the searchCourses query itself
+        searchTimer = Timer.builder("edtech.search.query")
+                .description("Time the search engine takes to return one page")
+                .tag("engine", searchEngineName)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        searchResults = DistributionSummary.builder("edtech.search.results")
+                .description("Courses returned per search page")
+                .baseUnit("courses")
+                .tag("engine", searchEngineName)
+                .serviceLevelObjectives(1, 5, 10, 20, 50, 100)
+                .register(meterRegistry);
+        facetsTimer = Timer.builder("edtech.search.facets")
+                .description("Time the search engine takes to count the facets of one search")
+                .tag("engine", searchEngineName)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public Course findById(@NotNull Long courseId) {
         return courseRepository.findById(courseId).orElseThrow(
                 () -> new EntityNotFoundException("Course not found with Id: " + courseId));
@@ -37,12 +145,14 @@ public class CourseServiceImpl implements CourseService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Course findByInternalId(@NotNull UUID courseInternalId) {
         return courseRepository.findByInternalId(courseInternalId).orElseThrow(
                 () -> new EntityNotFoundException("Course not found with internalId" + courseInternalId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Course findByUserIdAndTitle(
             @NotNull Long userId,
             @NotNull String title) {
@@ -51,6 +161,7 @@ public class CourseServiceImpl implements CourseService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public long countByUserId(@NotNull Long userId) {
         return courseRepository.countByUserId(userId);
     }
@@ -58,45 +169,80 @@ public class CourseServiceImpl implements CourseService {
     @Override
     @Transactional
     public Course addOrUpdate(@NotNull Course course) {
-        User user = null;
-        if (Objects.isNull(course.getUser())) {
-            throw new RuntimeException("Course must have provider");
-        } else if (Objects.nonNull(course.getUser().getInternalId())) {
-            user = userService.findByInternalId(course.getUser().getInternalId());
-            if (Objects.isNull(user) && Objects.nonNull(course.getUser().getId())) {
-                user = userService.findById(course.getUser().getId());
+        prepareNativeWrite(course);
+
+        // Update by internalId/id first; otherwise insert, or update the course with this title
+        Course savedCourse = null;
+        if (Objects.nonNull(course.getInternalId()) || Objects.nonNull(course.getId())) {
+            savedCourse = courseRepository.updateOwnedCourse(course).orElse(null);
+            if (Objects.isNull(savedCourse)
+                    && courseRepository.existsByInternalIdOrId(course.getInternalId(), course.getId())) {
+                throw new EntityNotFoundException(NOT_OWNED_MESSAGE);
             }
         }
-        if (Objects.isNull(user)) {
-            throw new RuntimeException("Create provider user for this course");
-        } else {
-            course.setUser(user);
+        if (Objects.isNull(savedCourse)) {
+            // ids of new courses are always generated here, whatever the client sent
+            course.setId(null);
+            course.setInternalId(TimeOrderedUuid.next());
+            savedCourse = courseRepository.upsertByUserIdAndTitle(course);
         }
 
-        Course dbCourse = null;
-        if (Objects.nonNull(course.getInternalId())) {
-            dbCourse = courseRepository.findByInternalId(course.getInternalId())
-                    .orElse(null);
-        } else if (Objects.nonNull(course.getId())) {
-            dbCourse = courseRepository.findById(course.getId())
-                    .orElse(null);
-        }
+        courseSearchEngine.index(savedCourse);
+        coursesChanged(CourseChangeType.SAVED, List.of(savedCourse));
+        log.info("Successfully saved course with id: {}, title: {}", savedCourse.getId(), savedCourse.getTitle());
+        return savedCourse;
+    }
 
-        if (Objects.isNull(dbCourse)) {
-            dbCourse = courseRepository.findByUserIdAndTitle(course.getUser().getId(), course.getTitle())
-                    .orElse(null);
+    @Override
+    @Transactional
+    public CourseImportResponse importChunk(@NotNull Long userId, @NotNull List<Course> courses) {
+        User provider = resolveProvider(User.builder().id(userId).build());
+
+        Set<String> titles = courses.stream()
+                .map(Course::getTitle)
+                .collect(Collectors.toSet());
+        Map<String, Course> byTitle = new HashMap<>();
+        for (Course existing : courseRepository.findAllByUserIdAndTitleIn(userId, titles)) {
+            byTitle.put(existing.getTitle(), existing);
         }
 
-        if (Objects.nonNull(dbCourse)) {
-            dbCourse.copy(course);
-            log.info("Updating course with id: {}, title: {}", dbCourse.getId(), dbCourse.getTitle());
-        } else {
-            dbCourse = course;
-            log.info("Creating new course with title: {}", course.getTitle());
+        int created = 0;
+        int updated = 0;
+        List<Course> newCourses = new ArrayList<>();
+        for (Course course : courses) {
+            // imports match by title only; new courses always get a fresh internalId
+            course.setInternalId(null);
+            course.setUser(provider);
+            // an existing course, or one created earlier in this chunk under the same title
+            Course dbCourse = byTitle.get(course.getTitle());
+            if (Objects.nonNull(dbCourse)) {
+                dbCourse.copy(course);
+                updated++;
+            } else {
+                byTitle.put(course.getTitle(), course);
+                newCourses.add(course);
+                created++;
+            }
         }
 
-        Course savedCourse = courseRepository.save(dbCourse);
-        log.info("Successfully saved course with id: {}, title: {}", savedCourse.getId(), savedCourse.getTitle());
+        // new courses are persisted; updates are flushed by dirty checking at commit
+        courseRepository.saveAll(newCourses);
+        byTitle.values().forEach(courseSearchEngine::index);
+        coursesChanged(CourseChangeType.SAVED, byTitle.values());
+        log.info("Imported course chunk for user {}: {} created, {} updated", userId, created, updated);
+        return new CourseImportResponse(created, updated, 0, new ArrayList<>());
+    }
+
+    @Override
+    @Transactional
+    public Course updateCourse(@NotNull UUID courseInternalId, @NotNull Course course) {
+        course.setInternalId(courseInternalId);
+        prepareNativeWrite(course);
+
+        Course savedCourse = courseRepository.updateOwnedCourseDetails(course).orElseThrow(
+                () -> new EntityNotFoundException(NOT_OWNED_MESSAGE));
+        courseSearchEngine.index(savedCourse);
+        coursesChanged(CourseChangeType.SAVED, List.of(savedCourse));
         return savedCourse;
     }
 
@@ -104,36 +250,166 @@ public class CourseServiceImpl implements CourseService {
     @Transactional
     public void delete(@NotNull Course course) {
         courseRepository.delete(course);
+        courseSearchEngine.remove(course);
+        coursesChanged(CourseChangeType.DELETED, List.of(course));
     }
 
     @Override
     @Transactional
-    public Course publishCourse(@NotNull UUID courseInternalId) {
-        Course course = courseRepository.findByInternalId(courseInternalId).orElseThrow(
-                () -> new EntityNotFoundException("Course not found with internalId" + courseInternalId));
-        course.setIsPublished(true);
-        return courseRepository.save(course);
+    public void delete(@NotNull UUID courseInternalId, @NotNull Long userId) {
+        if (deleteCourses(userId, List.of(courseInternalId)).isEmpty()) {
+            throw new EntityNotFoundException(NOT_OWNED_MESSAGE);
+        }
     }
 
     @Override
     @Transactional
-    public Course unpublishCourse(@NotNull UUID courseInternalId) {
-        Course course = courseRepository.findByInternalId(courseInternalId).orElseThrow(
-                () -> new EntityNotFoundException("Course not found with internalId" + courseInternalId));
-        course.setIsPublished(false);
-        return courseRepository.save(course);
+    public Course publishCourse(@NotNull UUID courseInternalId, @NotNull Long userId) {
+        return setPublished(userId, List.of(courseInternalId), true).stream().findFirst().orElseThrow(
+                () -> new EntityNotFoundException(NOT_OWNED_MESSAGE));
+    }
+
+    @Override
+    @Transactional
+    public Course unpublishCourse(@NotNull UUID courseInternalId, @NotNull Long userId) {
+        return setPublished(userId, List.of(courseInternalId), false).stream().findFirst().orElseThrow(
+                () -> new EntityNotFoundException(NOT_OWNED_MESSAGE));
+    }
+
+    @Override
+    @Transactional
+    public List<UUID> publishCourses(@NotNull Long userId, @NotNull Collection<UUID> courseInternalIds) {
+        return setPublished(userId, courseInternalIds, true).stream().map(Course::getInternalId).toList();
+    }
+
+    @Override
+    @Transactional
+    public List<UUID> unpublishCourses(@NotNull Long userId, @NotNull Collection<UUID> courseInternalIds) {
+        return setPublished(userId, courseInternalIds, false).stream().map(Course::getInternalId).toList();
+    }
+
+    @Override
+    @Transactional
+    public List<UUID> deleteCourses(@NotNull Long userId, @NotNull Collection<UUID> courseInternalIds) {
+        List<Course> deleted = courseRepository.deleteOwned(userId, courseInternalIds);
+        deleted.forEach(courseSearchEngine::remove);
+        if (!deleted.isEmpty()) {
+            coursesChanged(CourseChangeType.DELETED, deleted);
+        }
+        log.info("Deleted {} of {} courses for user {}", deleted.size(), courseInternalIds.size(), userId);
+        return deleted.stream().map(Course::getInternalId).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Course> getAllByUserId(@NotNull Long userId) {
         return courseRepository.getAllByUserId(userId);
     }
 
     @Override
-    public List<Course> searchCourses(
+    @Transactional(readOnly = true)
+    public void forEachByUserId(@NotNull Long userId, @NotNull Consumer<CourseDTO> action) {
+        try (Stream<CourseDTO> courses = courseRepository.streamAllByUserId(userId)) {
+            courses.forEach(action);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachSummaryByUserId(@NotNull Long userId, @NotNull Consumer<CourseSummaryDTO> action) {
+        try (Stream<CourseSummaryDTO> courses = courseRepository.streamSummariesByUserId(userId)) {
+            courses.forEach(action);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> findUpdatedAt(@NotNull UUID courseInternalId, @NotNull Long userId) {
+        return courseRepository.findUpdatedAtByInternalIdAndUserId(courseInternalId, userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getCoursesVersion(@NotNull Long userId) {
+        String digest = courseRepository.findCoursesDigestByUserId(userId);
+        return digest != null ? digest : "none";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getCatalogVersion() {
+        return courseRepository.getCatalogVersion();
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public Slice<CourseDTO> searchCourses(
+            @Nullable String pinCode,
+            @Nullable SearchFilters filters,
+            @Nullable SearchCursor after,
+            @Nullable Integer limit) {
+
+        CourseSearchQuery query = toSearchQuery(pinCode, filters, after, limit);
+        return search(query, courseRepository::getCatalogVersion).courses();
+    }
+
+    // repeatable read: the version, the page and the facets all come from the first statement's
+    // snapshot, even when a write commits in between
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public CourseSearchResult searchCatalog(
+            @Nullable String pinCode,
+            @Nullable SearchFilters filters,
+            @Nullable SearchCursor after,
+            @Nullable Integer limit,
+            boolean facets) {
+
+        long catalogVersion = courseRepository.getCatalogVersion();
+        CourseSearchQuery query = toSearchQuery(pinCode, filters, after, limit);
+        SearchResultCache.VersionedSlice page = search(query, () -> catalogVersion);
+        CourseFacets courseFacets = null;
+        if (facets) {
+            CourseSearchQuery facetsQuery = toSearchQuery(pinCode, filters, null, null);
+            courseFacets = facetsTimer.record(() -> courseSearchEngine.countFacets(facetsQuery));
+        }
+        return new CourseSearchResult(page.courses(), courseFacets, Math.min(catalogVersion, page.catalogVersion()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CourseFacets countSearchFacets(
             @Nullable String pinCode,
             @Nullable SearchFilters filters) {
 
+        CourseSearchQuery query = toSearchQuery(pinCode, filters, null, null);
+
+        log.debug("Counting search facets with query: {}", query);
+        return facetsTimer.record(() -> courseSearchEngine.countFacets(query));
+    }
+
+    private SearchResultCache.VersionedSlice search(CourseSearchQuery query, LongSupplier catalogVersion) {
+        log.debug("Searching courses with query: {}", query);
+
+        SearchResultCache.VersionedSlice page = searchResultCache.get(query, catalogVersion,
+                () -> searchTimer.record(() -> courseSearchEngine.search(query)));
+        Slice<CourseDTO> results = page.courses();
+        searchResults.record(results.getNumberOfElements());
+
+        log.debug("Found {} courses matching search criteria, hasNext: {}",
+                results.getNumberOfElements(), results.hasNext());
+        return page;
+    }
+
+    /**
+     * Resolves the request parameters into an engine query: defaults, PIN code precedence,
+     * validation and the cursor position.
+     */
+    private CourseSearchQuery toSearchQuery(
+            @Nullable String pinCode,
+            @Nullable SearchFilters filters,
+            @Nullable SearchCursor after,
+            @Nullable Integer limit) {
+
         LocalDate startFrom = filters != null && filters.getStartFrom() != null
                 ? filters.getStartFrom()
                 : LocalDate.now();
@@ -143,25 +419,145 @@ public class CourseServiceImpl implements CourseService {
                 ? filters.getPinCode()
                 : (pinCode != null && !pinCode.isBlank() ? pinCode : null);
 
-        // Construct the LIKE pattern only if pinCode is not null/blank
-        // This avoids the PostgreSQL type error when CONCAT is called with NULL
-        String pinCodePattern = (searchPinCode != null && !searchPinCode.isBlank())
-                ? searchPinCode + "%"
+        String text = filters != null && filters.getText() != null && !filters.getText().isBlank()
+                ? filters.getText().strip()
                 : null;
+        if (text != null && text.length() > maxTextLength) {
+            throw new InvalidSearchQueryException("q must not exceed " + maxTextLength + " characters");
+        }
+
+        // A radius search ranks in-person courses by distance from the PIN code instead of
+        // matching it as a prefix
+        Double radiusKm = filters != null ? filters.getRadiusKm() : null;
+        GeoPoint near = null;
+        if (radiusKm != null) {
+            if (text != null) {
+                throw new InvalidSearchQueryException("q cannot be combined with radiusKm");
+            }
+            if (!(radiusKm > 0)) {
+                throw new InvalidSearchLocationException("radiusKm must be positive");
+            }
+            if (searchPinCode == null) {
+                throw new InvalidSearchLocationException("radiusKm requires a pinCode");
+            }
+            String centrePinCode = searchPinCode;
+            near = pinCodeDirectory.locate(centrePinCode).orElseThrow(
+                    () -> new InvalidSearchLocationException("Unknown PIN code location: " + centrePinCode));
+            radiusKm = Math.min(radiusKm, maxRadiusKm);
+            searchPinCode = null;
+        }
+
+        // Seek past the cursor; a cursor from before startFrom (or no cursor) starts the page at startFrom.
+        // Radius and text searches order by distance or relevance first, so there startFrom is a
+        // filter and the cursor is used as is; without one the page starts before every distance
+        // or above every relevance.
+        LocalDate afterStartDate = startFrom;
+        UUID afterId = FIRST_ID;
+        Double afterDistanceKm = near != null ? -1.0 : null;
+        Double afterRelevance = text != null ? Double.MAX_VALUE : null;
+        if (near != null) {
+            if (after != null && after.getStartDate() != null && after.getId() != null
+                    && after.getDistanceKm() != null) {
+                afterDistanceKm = after.getDistanceKm();
+                afterStartDate = after.getStartDate();
+                afterId = after.getId();
+            }
+        } else if (text != null) {
+            if (after != null && after.getStartDate() != null && after.getId() != null
+                    && after.getRelevance() != null) {
+                afterRelevance = after.getRelevance();
+                afterStartDate = after.getStartDate();
+                afterId = after.getId();
+            }
+        } else if (after != null && after.getStartDate() != null && after.getId() != null
+                && !after.getStartDate().isBefore(startFrom)) {
+            afterStartDate = after.getStartDate();
+            afterId = after.getId();
+        }
 
-        log.debug("Searching courses with pinCodePattern: {}, startFrom: {}, filters: {}", 
-                pinCodePattern, startFrom, filters);
+        int pageSize = limit == null || limit < 1
+                ? defaultPageSize
+                : Math.min(limit, maxPageSize);
 
-        List<Course> results = courseRepository.searchCourses(
-                pinCodePattern,
+        return new CourseSearchQuery(
+                searchPinCode,
+                near,
+                near != null ? radiusKm : null,
+                text,
                 filters != null ? filters.getCategory() : null,
                 filters != null ? filters.getMode() : null,
                 filters != null ? filters.getIsFree() : null,
                 startFrom,
-                filters != null ? filters.getStartTo() : null
-        );
+                filters != null ? filters.getStartTo() : null,
+                afterDistanceKm,
+                afterRelevance,
+                afterStartDate,
+                afterId,
+                pageSize);
+    }
 
-        log.debug("Found {} courses matching search criteria", results.size());
-        return results;
+    /**
+     * One UPDATE for all the courses; the returned rows are what the search engine indexes.
+     */
+    private List<Course> setPublished(Long userId, Collection<UUID> courseInternalIds, boolean published) {
+        // at the column's precision, so the returned rows that took this timestamp compare equal to it
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<Course> courses = courseRepository.updatePublishedOwned(userId, courseInternalIds, published, now);
+        List<Course> changed = courses.stream()
+                .filter(course -> now.equals(course.getUpdatedAt()))
+                .toList();
+        changed.forEach(courseSearchEngine::index);
+        if (!changed.isEmpty()) {
+            coursesChanged(published ? CourseChangeType.PUBLISHED : CourseChangeType.UNPUBLISHED, changed);
+        }
+        return courses;
+    }
+
+    /**
+     * Native writes skip what a persist would do, so do it here: resolve the owner, set the
+     * timestamps, then run bean validation.
+     */
+    private void prepareNativeWrite(Course course) {
+        course.setUser(resolveProvider(course.getUser()));
+
+        LocalDateTime now = LocalDateTime.now();
+        course.setCreatedAt(now);
+        course.setUpdatedAt(now);
+        Set<ConstraintViolation<Course>> violations = validator.validate(course);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    /**
+     * Everything a course write does besides the write itself: the change feed entry, the cached
+     * search pages it affects and the catalog version, which moves on in the write's transaction.
+     */
+    private void coursesChanged(CourseChangeType type, Collection<Course> courses) {
+        courseChangeService.record(type, courses);
+        searchResultCache.invalidate(courses);
+        courseRepository.incrementCatalogVersion();
+    }
+
+    /**
+     * Resolves the course owner through the user cache, so a write costs at most one users-table
+     * read. The cached instance is only referenced by the course (no cascades), never modified.
+     */
+    private User resolveProvider(User owner) {
+        User user;
+        if (Objects.isNull(owner)) {
+            throw new RuntimeException("Course must have provider");
+        } else if (Objects.nonNull(owner.getId())) {
+            user = userService.getCachedById(owner.getId());
+        } else if (Objects.nonNull(owner.getInternalId())) {
+            user = userService.findByInternalId(owner.getInternalId());
+        } else {
+            throw new RuntimeException("Create provider user for this course");
+        }
+
+        if (!Objects.equals(user.getUserType(), UserType.PROVIDER)) {
+            throw new RuntimeException("Only provider could create courses");
+        }
+        return user;
     }
 }
@@ -1,15 +1,29 @@
 package com.task.edtech.db.service.impl;
 
+import com.task.edtech.db.cache.SharedCache;
+import com.task.edtech.db.cache.TwoTierCache;
+import com.task.edtech.db.datasource.ReadReplicaRoutingDataSource;
 import com.task.edtech.db.entity.User;
+import com.task.edtech.db.enums.UserType;
 import com.task.edtech.db.exception.EntityNotFoundException;
 import com.task.edtech.db.repository.UserRepository;
 import com.task.edtech.db.service.UserService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -20,25 +34,74 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private SharedCache sharedCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.cache.user-ttl:30s}")
+    private Duration userCacheTtl;
+
+    @Value("${app.cache.user-max-size:10000}")
+    private int userCacheMaxSize;
+
+    /**
+     * Users by id on this node and in the shared tier, without their password hashes; writes on
+     * any node invalidate both. Loaded from the primary, since every node serves what one loads.
+     */
+    private TwoTierCache<Long, CachedUser> usersById;
+
+    /** Joins the caller's transaction, if any; a read-write one is on the primary already. */
+    private TransactionTemplate loadTransaction;
+
+    /** For callers in a read-only transaction, whose connection may be a replica's. */
+    private TransactionTemplate separateLoadTransaction;
+
+    @PostConstruct
+    void init() {
+        usersById = new TwoTierCache<>("users", CachedUser.class, userCacheMaxSize, userCacheTtl, sharedCache);
+        loadTransaction = new TransactionTemplate(transactionManager);
+        loadTransaction.setReadOnly(true);
+        separateLoadTransaction = new TransactionTemplate(transactionManager);
+        separateLoadTransaction.setReadOnly(true);
+        separateLoadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PreDestroy
+    void close() {
+        usersById.close();
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public User findById(@NotNull Long userId) {
         return userRepository.findById(userId).orElseThrow(
                 () -> new EntityNotFoundException("User not found with ID: " + userId));
     }
 
     @Override
+    public User getCachedById(@NotNull Long userId) {
+        return usersById.get(userId, this::loadFromPrimary).toUser();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public User findByInternalId(@NotNull UUID internalId) {
         return userRepository.findByInternalId(internalId).orElseThrow(
                 () -> new EntityNotFoundException("User not found with internal ID: " + internalId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User findByEmail(@NotNull String email) {
         return userRepository.findByEmail(email).orElseThrow(
                 () -> new EntityNotFoundException("User not found with email: " + email));
     }
 
+    // read-write so it runs on the primary: the signup uniqueness check must see every committed user
     @Override
+    @Transactional
     public boolean existsByEmail(@NotNull String email) {
         return userRepository.existsByEmail(email);
     }
@@ -68,6 +131,7 @@ public class UserServiceImpl implements UserService {
 
         log.info("adding/updating user with id %s", user.getId());
         User savedUser = userRepository.save(dbUser);
+        usersById.invalidate(savedUser.getId());
         log.info("added/updated user with id %s", savedUser.getId());
         return savedUser;
     }
@@ -76,6 +140,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void delete(@NotNull User user) {
         userRepository.delete(user);
+        usersById.invalidate(user.getId());
     }
 
     @Override
@@ -83,6 +148,38 @@ public class UserServiceImpl implements UserService {
     public void deleteById(@NotNull Long userId) {
         User user = findById(userId);
         userRepository.delete(user);
+        usersById.invalidate(userId);
+    }
+
+    private CachedUser loadFromPrimary(Long userId) {
+        TransactionTemplate transaction = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? separateLoadTransaction
+                : loadTransaction;
+        return ReadReplicaRoutingDataSource.readingPrimary(() -> transaction.execute(status ->
+                CachedUser.of(userRepository.findById(userId).orElseThrow(
+                        () -> new EntityNotFoundException("User not found with ID: " + userId)))));
+    }
+
+    /** What the user cache keeps of a user: everything but the password hash. */
+    private record CachedUser(Long id, UUID internalId, String email, String name, UserType userType,
+                              LocalDateTime createdAt, LocalDateTime updatedAt) implements Serializable {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getInternalId(), user.getEmail(), user.getName(),
+                    user.getUserType(), user.getCreatedAt(), user.getUpdatedAt());
+        }
+
+        User toUser() {
+            return User.builder()
+                    .id(id)
+                    .internalId(internalId)
+                    .email(email)
+                    .name(name)
+                    .userType(userType)
+                    .createdAt(createdAt)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
     }
 }
 
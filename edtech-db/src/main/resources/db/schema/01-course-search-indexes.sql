@@ -0,0 +1,19 @@
+-- Indexes for the published-course search (CourseRepository.searchCourses).
+-- Hibernate's @Index cannot express partial or operator-class indexes, so these are
+-- applied after hbm2ddl has created/updated the tables. Every statement must be idempotent.
+
+-- Keyset order of the search: only published rows, sorted exactly like the query.
+CREATE INDEX IF NOT EXISTS idx_course_published_start
+    ON courses (start_date, internal_id)
+    WHERE is_published = true;
+
+-- Category / mode filtered searches, still in keyset order within each combination.
+CREATE INDEX IF NOT EXISTS idx_course_published_category_mode_start
+    ON courses (category, mode, start_date, internal_id)
+    WHERE is_published = true;
+
+-- PIN-code prefix search (pin_code LIKE 'prefix%'). text_pattern_ops makes the LIKE
+-- prefix indexable regardless of the database collation.
+CREATE INDEX IF NOT EXISTS idx_course_published_pin_code
+    ON courses (pin_code text_pattern_ops, start_date)
+    WHERE is_published = true AND pin_code IS NOT NULL;
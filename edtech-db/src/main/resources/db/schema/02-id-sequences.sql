@@ -0,0 +1,13 @@
+-- Ids moved from IDENTITY columns to pooled sequences (BaseEntity, increment 50).
+-- On databases created before that, hbm2ddl creates the sequences at 1 while the tables
+-- already hold rows; move each sequence past the existing ids. A no-op once it is ahead.
+-- Hibernate hands out (value - 49 .. value] for each nextval, so the next value must be
+-- at least max(id) + 50.
+
+SELECT setval('courses_seq', (SELECT max(id) FROM courses) + 50, false)
+WHERE (SELECT last_value - CASE WHEN is_called THEN 0 ELSE 50 END FROM courses_seq)
+      < (SELECT max(id) FROM courses);
+
+SELECT setval('users_seq', (SELECT max(id) FROM users) + 50, false)
+WHERE (SELECT last_value - CASE WHEN is_called THEN 0 ELSE 50 END FROM users_seq)
+      < (SELECT max(id) FROM users);
@@ -0,0 +1,16 @@
+-- Version of the published catalog, used as the ETag of search responses: the sum of the
+-- slots. Every course write adds one to a slot inside its own transaction, so a search reads the
+-- version from the same snapshot as its rows, on the primary and on any replica alike. Writers
+-- spread over the slots, so concurrent writes seldom wait on each other's row lock.
+
+CREATE TABLE IF NOT EXISTS catalog_versions (
+    slot smallint PRIMARY KEY,
+    version bigint NOT NULL DEFAULT 0
+);
+
+INSERT INTO catalog_versions (slot)
+SELECT generate_series(0, 15)
+ON CONFLICT (slot) DO NOTHING;
+
+-- replaced by catalog_versions: a sequence is not transactional, and a standby's copy lags
+DROP SEQUENCE IF EXISTS catalog_version_seq;
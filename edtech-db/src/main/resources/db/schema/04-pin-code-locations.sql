@@ -0,0 +1,12 @@
+-- Indexes for the radius search (CourseRepository.searchCoursesNear). The query narrows
+-- pin_code_locations to a latitude/longitude bounding box first, then joins the in-person
+-- courses of those PIN codes, so only courses near the centre are ever read and ranked.
+
+-- Bounding-box scan over PIN code centres.
+CREATE INDEX IF NOT EXISTS idx_pin_code_location_lat_lon
+    ON pin_code_locations (latitude, longitude);
+
+-- Published in-person courses of one PIN code (the join side of the radius search).
+CREATE INDEX IF NOT EXISTS idx_course_published_in_person_pin_code
+    ON courses (pin_code)
+    WHERE is_published = true AND mode = 'IN_PERSON';
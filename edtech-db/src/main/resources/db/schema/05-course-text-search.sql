@@ -0,0 +1,15 @@
+-- Full-text search over title and description (CourseRepository.searchCoursesByText).
+-- search_vector is a stored generated column, so PostgreSQL keeps it current on every insert and
+-- update, whichever path writes the row; it is not mapped on the Course entity. Title words
+-- weigh more (A) than description words (B) in the ranking.
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A')
+            || setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+-- Inverted index over the published rows: a text search reads only the courses containing the
+-- query's words, then ranks those.
+CREATE INDEX IF NOT EXISTS idx_course_published_search_vector
+    ON courses USING gin (search_vector)
+    WHERE is_published = true;
@@ -0,0 +1,11 @@
+-- Change feed of course writes (the course_changes outbox, created by hbm2ddl from CourseChange).
+-- txid is the id of the writing transaction, filled in by the default. The feed only returns
+-- rows of transactions older than every transaction still running (pg_snapshot_xmin), ordered
+-- by (txid, id): a transaction that commits later always has a higher txid than anything
+-- already returned, so a consumer resuming from its last (txid, id) never skips a change.
+
+ALTER TABLE course_changes ADD COLUMN IF NOT EXISTS txid xid8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE INDEX IF NOT EXISTS idx_course_change_txid_id ON course_changes (txid, id);
+
+CREATE INDEX IF NOT EXISTS idx_course_change_changed_at ON course_changes (changed_at);